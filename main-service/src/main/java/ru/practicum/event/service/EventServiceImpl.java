@@ -7,6 +7,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientException;
 import ru.practicum.EndpointHitDto;
 import ru.practicum.ViewStatsDto;
 import ru.practicum.client.StatsClient;
@@ -21,6 +22,7 @@ import ru.practicum.exception.NotFoundException;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -119,7 +121,6 @@ public class EventServiceImpl implements EventService {
         if (!resultEvent.getState().equals(EventState.PUBLISHED.name())) {
             throw new NotFoundException("Событие недоступно");
         }
-        resultEvent.setViews(resultEvent.getViews() + 1);
         EndpointHitDto endpointHitDto = EndpointHitDto.builder()
                 .app("main-service")
                 .uri(request.getRequestURI())
@@ -127,14 +128,22 @@ public class EventServiceImpl implements EventService {
                 .timestamp(LocalDateTime.now())
                 .build();
         statsClient.postHit(endpointHitDto);
-        List<ViewStatsDto> viewStatsDtoList = statsClient.getStats(resultEvent.getCreatedOn(),
-                resultEvent.getEventDate(),
-                List.of(request.getRequestURI()),
-                true);
-        resultEvent.setViews(viewStatsDtoList.size());
+        resultEvent.setViews(Math.max(getViews(resultEvent, request.getRequestURI()), resultEvent.getViews()));
         return EventMapper.fromEventToEventFullDto(eventRepository.save(resultEvent));
     }
 
+    private int getViews(Event event, String uri) {
+        try {
+            return statsClient.getEventViews(List.of(event.getId()), true).getOrDefault(event.getId(), 0L).intValue();
+        } catch (RestClientException e) {
+            log.warn("Счётчики просмотров недоступны, просмотры события {} считаются по статистике: {}",
+                    event.getId(), e.getMessage());
+            LocalDateTime from = event.getCreatedOn().truncatedTo(ChronoUnit.DAYS);
+            List<ViewStatsDto> viewStatsDtoList = statsClient.getStats(from, LocalDateTime.now(), List.of(uri), true);
+            return (int) viewStatsDtoList.stream().mapToLong(ViewStatsDto::getHits).sum();
+        }
+    }
+
     private void idValidation(Long id, String fieldName) {
         if (id < 0) {
             throw new BadRequestException("Поле " + fieldName + " должно быть больше 0, текущее значение "
@@ -0,0 +1,132 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.StatsAggregator;
+import ru.practicum.model.DictionaryTable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregationBenchmark {
+    private static final int APPS = 2;
+    private static final int LIMIT = 10;
+
+    @Param({"100000", "1000000"})
+    int hits;
+
+    @Param({"1000"})
+    int uris;
+
+    @Param({"100000"})
+    int ips;
+
+    private int[] appIds;
+    private int[] uriIds;
+    private int[] ipIds;
+    private String[] appNames;
+    private String[] uriNames;
+    private String[] ipNames;
+    private Map<DictionaryTable, Map<Integer, String>> dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        appIds = new int[hits];
+        uriIds = new int[hits];
+        ipIds = new int[hits];
+        appNames = new String[hits];
+        uriNames = new String[hits];
+        ipNames = new String[hits];
+        Map<Integer, String> apps = new HashMap<>();
+        Map<Integer, String> uriDictionary = new HashMap<>();
+        for (int i = 0; i < hits; i++) {
+            double skew = random.nextDouble();
+            appIds[i] = 1 + random.nextInt(APPS);
+            uriIds[i] = 1 + (int) (skew * skew * uris);
+            ipIds[i] = 1 + random.nextInt(ips);
+            appNames[i] = apps.computeIfAbsent(appIds[i], id -> "app-" + id);
+            uriNames[i] = uriDictionary.computeIfAbsent(uriIds[i], id -> "/events/" + id);
+            ipNames[i] = "10." + (ipIds[i] >> 16 & 0xFF) + "." + (ipIds[i] >> 8 & 0xFF) + "." + (ipIds[i] & 0xFF);
+        }
+        dictionary = Map.of(DictionaryTable.APP, apps, DictionaryTable.URI, uriDictionary);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> primitiveHits() {
+        StatsAggregator aggregator = new StatsAggregator(false);
+        aggregator.addAll(appIds, uriIds, ipIds, 0, hits);
+        return aggregator.toViewStats(this::names, LIMIT);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> primitiveUnique() {
+        StatsAggregator aggregator = new StatsAggregator(true);
+        aggregator.addAll(appIds, uriIds, ipIds, 0, hits);
+        return aggregator.toViewStats(this::names, LIMIT);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> naiveHits() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < hits; i++) {
+            counts.merge(appNames[i] + '\n' + uriNames[i], 1L, Long::sum);
+        }
+        return top(counts);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> naiveUnique() {
+        Map<String, Set<String>> addresses = new HashMap<>();
+        for (int i = 0; i < hits; i++) {
+            addresses.computeIfAbsent(appNames[i] + '\n' + uriNames[i], k -> new HashSet<>()).add(ipNames[i]);
+        }
+        Map<String, Long> counts = new HashMap<>();
+        addresses.forEach((key, values) -> counts.put(key, (long) values.size()));
+        return top(counts);
+    }
+
+    private List<ViewStatsDto> top(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(LIMIT)
+                .map(entry -> {
+                    int separator = entry.getKey().indexOf('\n');
+                    return new ViewStatsDto(entry.getKey().substring(0, separator),
+                            entry.getKey().substring(separator + 1), entry.getValue());
+                })
+                .toList();
+    }
+
+    private Map<Integer, String> names(DictionaryTable table, Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        for (Integer id : ids) {
+            names.put(id, dictionary.get(table).get(id));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.mapper.StatsMapper;
+import ru.practicum.model.Stats;
+import ru.practicum.service.HitWriter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+    @Param({"1", "100", "1000"})
+    int batchSize;
+
+    @Param({"1000"})
+    int uris;
+
+    private ConfigurableApplicationContext context;
+    private HitWriter hitWriter;
+    private List<EndpointHitDto> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = StatsContext.start(Map.of("stats.ingest.shedding.enabled", "false"));
+        hitWriter = context.getBean(HitWriter.class);
+        LocalDateTime now = LocalDateTime.now();
+        batch = StatsContext.hits(batchSize, uris, 100_000, now.minusMinutes(1), now, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Stats> map() {
+        List<Stats> hits = new ArrayList<>(batch.size());
+        for (EndpointHitDto hit : batch) {
+            hits.add(StatsMapper.fromEndpointHitDtoToEndpointHit(hit, 1, 2, 3));
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public void write() {
+        hitWriter.write(batch);
+    }
+}
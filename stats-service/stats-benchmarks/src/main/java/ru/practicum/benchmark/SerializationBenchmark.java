@@ -0,0 +1,119 @@
+package ru.practicum.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.EndpointHitCodec;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.ViewStatsDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final TypeReference<List<EndpointHitDto>> HIT_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<ViewStatsDto>> VIEW_STATS_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "1000"})
+    int size;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private List<EndpointHitDto> hits;
+    private List<ViewStatsDto> viewStats;
+    private byte[] hitsJson;
+    private byte[] hitsBinary;
+    private byte[] viewStatsJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        hits = StatsContext.hits(size, 1000, 100_000, now.minusDays(1), now, 42);
+        viewStats = IntStream.range(0, size)
+                .mapToObj(i -> new ViewStatsDto(StatsContext.APP, "/events/" + i, (long) (size - i) * 10))
+                .toList();
+        hitsJson = objectMapper.writeValueAsBytes(hits);
+        hitsBinary = encode();
+        viewStatsJson = objectMapper.writeValueAsBytes(viewStats);
+    }
+
+    @Benchmark
+    public byte[] writeHitsJson(EncodedSize encodedSize) throws IOException {
+        return encodedSize.record(objectMapper.writeValueAsBytes(hits), size);
+    }
+
+    @Benchmark
+    public List<EndpointHitDto> readHitsJson() throws IOException {
+        return objectMapper.readValue(hitsJson, HIT_LIST);
+    }
+
+    @Benchmark
+    public byte[] writeHitsBinary(EncodedSize encodedSize) throws IOException {
+        return encodedSize.record(encode(), size);
+    }
+
+    @Benchmark
+    public List<EndpointHitDto> readHitsBinary() throws IOException {
+        return EndpointHitCodec.read(new ByteArrayInputStream(hitsBinary));
+    }
+
+    @Benchmark
+    public byte[] writeViewStatsJson() throws IOException {
+        return objectMapper.writeValueAsBytes(viewStats);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> readViewStatsJson() throws IOException {
+        return objectMapper.readValue(viewStatsJson, VIEW_STATS_LIST);
+    }
+
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EndpointHitCodec.write(hits, out);
+        return out.toByteArray();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+        public long hits;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            hits = 0;
+        }
+
+        byte[] record(byte[] encoded, int count) {
+            bytes += encoded.length;
+            hits += count;
+            return encoded;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.StatsServer;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+final class StatsContext {
+    static final String APP = "ewm-main-service";
+
+    private StatsContext() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, String> properties) {
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("spring.datasource.url", "jdbc:h2:mem:bench" + System.nanoTime());
+        args.put("logging.level.ru.practicum", "WARN");
+        args.putAll(properties);
+        return new SpringApplicationBuilder(StatsServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(args.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    static List<EndpointHitDto> hits(int count, int uris, int ips, LocalDateTime from, LocalDateTime to, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long span = ChronoUnit.SECONDS.between(from, to);
+        List<EndpointHitDto> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ip = random.nextInt(ips);
+            hits.add(EndpointHitDto.builder()
+                    .app(APP)
+                    .uri("/events/" + (1 + skewed(random, uris)))
+                    .ip("10." + (ip >> 16 & 0xFF) + "." + (ip >> 8 & 0xFF) + "." + (ip & 0xFF))
+                    .timestamp(from.plusSeconds(random.nextLong(Math.max(1, span))))
+                    .build());
+        }
+        return hits;
+    }
+
+    private static int skewed(SplittableRandom random, int bound) {
+        double value = random.nextDouble();
+        return (int) (value * value * bound);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.service.HitWriter;
+import ru.practicum.service.StatsService;
+import ru.practicum.service.UniqueSketchService;
+import ru.practicum.trending.Trending;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsQueryBenchmark {
+    private static final int DAYS = 30;
+    private static final int LOAD_CHUNK = 10_000;
+
+    @Param({"100000", "1000000"})
+    int hits;
+
+    @Param({"1000"})
+    int uris;
+
+    @Param({"100000"})
+    int ips;
+
+    @Param({"plain", "cached", "parallel"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private StatsService statsService;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<String> filter;
+    private List<Long> eventIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("stats.cache.enabled", String.valueOf(mode.equals("cached")));
+        properties.put("stats.hot-window.enabled", String.valueOf(mode.equals("cached")));
+        properties.put("stats.query.parallel.enabled", String.valueOf(mode.equals("parallel")));
+        context = StatsContext.start(properties);
+        statsService = context.getBean(StatsService.class);
+
+        end = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        start = end.minusDays(DAYS);
+        List<EndpointHitDto> dataset = StatsContext.hits(hits, uris, ips, start, end, 42);
+        HitWriter hitWriter = context.getBean(HitWriter.class);
+        for (int from = 0; from < dataset.size(); from += LOAD_CHUNK) {
+            hitWriter.write(dataset.subList(from, Math.min(from + LOAD_CHUNK, dataset.size())));
+        }
+        context.getBeanProvider(UniqueSketchService.class).ifAvailable(UniqueSketchService::flush);
+
+        filter = IntStream.rangeClosed(1, 10).mapToObj(i -> "/events/" + i).toList();
+        eventIds = LongStream.rangeClosed(1, 100).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void stats(Blackhole blackhole) {
+        statsService.getStats(start, end, null, false, false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void uniqueStats(Blackhole blackhole) {
+        statsService.getStats(start, end, null, true, false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void approximateUniqueStats(Blackhole blackhole) {
+        statsService.getStats(start, end, null, true, true).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filteredStats(Blackhole blackhole) {
+        statsService.getStats(start, end, filter, false, false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void filteredUniqueStats(Blackhole blackhole) {
+        statsService.getStats(start, end, filter, true, false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void prefixStats(Blackhole blackhole) {
+        statsService.getStats(start, end, List.of("/events/1*"), false, false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<ViewStatsDto> topStats() {
+        return statsService.getTopStats(start, end, 10, false);
+    }
+
+    @Benchmark
+    public List<TimeSeriesStatsDto> timeSeries() {
+        return statsService.getTimeSeries(start, end, filter, ChronoUnit.DAYS);
+    }
+
+    @Benchmark
+    public Trending trending() {
+        return statsService.getTrending("24h", 10);
+    }
+
+    @Benchmark
+    public Map<Long, Long> eventViews() {
+        return statsService.getEventViews(eventIds, true);
+    }
+}
@@ -1,19 +1,28 @@
 package ru.practicum.client;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.EndpointHitCodec;
 import ru.practicum.EndpointHitDto;
+import ru.practicum.TimeSeriesStatsDto;
 import ru.practicum.ViewStatsDto;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Component
 public class StatsClient {
     @Value("${stats.server.url}")
@@ -28,11 +37,12 @@ public class StatsClient {
 
     public void postHit(EndpointHitDto hit) {
         String url = UriComponentsBuilder.fromHttpUrl(serverUrl).path("/hit").toUriString();
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<EndpointHitDto> requestEntity = new HttpEntity<>(hit, headers);
+        send(url, List.of(hit));
+    }
 
-        restTemplate.exchange(url, HttpMethod.POST, requestEntity, Object.class);
+    public void postHits(List<EndpointHitDto> hits) {
+        String url = UriComponentsBuilder.fromHttpUrl(serverUrl).path("/hit/batch").toUriString();
+        send(url, hits);
     }
 
     public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
@@ -52,4 +62,76 @@ public class StatsClient {
 
         return responseEntity.getBody();
     }
+
+    public List<ViewStatsDto> getTopStats(LocalDateTime start, LocalDateTime end, Integer limit, Boolean unique) {
+        String url = UriComponentsBuilder.fromHttpUrl(serverUrl).path("/stats/top")
+                .queryParam("start", start.format(formatter))
+                .queryParam("end", end.format(formatter))
+                .queryParam("limit", limit)
+                .queryParam("unique", unique)
+                .toUriString();
+        ResponseEntity<List<ViewStatsDto>> responseEntity = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<ViewStatsDto>>() {
+                });
+
+        return responseEntity.getBody();
+    }
+
+    public List<TimeSeriesStatsDto> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                  String interval) {
+        String url = UriComponentsBuilder.fromHttpUrl(serverUrl).path("/stats/timeseries")
+                .queryParam("start", start.format(formatter))
+                .queryParam("end", end.format(formatter))
+                .queryParam("uris", uris)
+                .queryParam("interval", interval)
+                .toUriString();
+        ResponseEntity<List<TimeSeriesStatsDto>> responseEntity = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<TimeSeriesStatsDto>>() {
+                });
+
+        return responseEntity.getBody();
+    }
+
+    public Map<Long, Long> getEventViews(List<Long> eventIds, Boolean unique) {
+        String url = UriComponentsBuilder.fromHttpUrl(serverUrl).path("/stats/events")
+                .queryParam("ids", eventIds)
+                .queryParam("unique", unique)
+                .toUriString();
+        ResponseEntity<Map<Long, Long>> responseEntity = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Map<Long, Long>>() {
+                });
+
+        return responseEntity.getBody();
+    }
+
+    private void send(String url, List<EndpointHitDto> hits) {
+        try {
+            restTemplate.exchange(url, HttpMethod.POST, encode(hits), Object.class);
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            log.warn("Сервер статистики перегружен, посещения не записаны ({} шт.), Retry-After={}",
+                    hits.size(), e.getResponseHeaders() == null ? null
+                            : e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+    }
+
+    private HttpEntity<byte[]> encode(List<EndpointHitDto> hits) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            EndpointHitCodec.write(hits, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(EndpointHitCodec.MEDIA_TYPE));
+        return new HttpEntity<>(body.toByteArray(), headers);
+    }
 }
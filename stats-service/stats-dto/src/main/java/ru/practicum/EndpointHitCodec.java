@@ -0,0 +1,100 @@
+package ru.practicum;
+
+import ru.practicum.exception.ValidationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EndpointHitCodec {
+    public static final String MEDIA_TYPE = "application/x-stats-hit";
+
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+
+    private EndpointHitCodec() {
+    }
+
+    public static void write(List<EndpointHitDto> hits, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        for (EndpointHitDto hit : hits) {
+            byte[] app = encode(hit.getApp());
+            byte[] uri = encode(hit.getUri());
+            byte[] ip = encode(hit.getIp());
+            byte[] hitId = hit.getHitId() != null ? encode(hit.getHitId()) : new byte[0];
+            int length = 8 + app.length + uri.length + ip.length + Long.BYTES + hitId.length;
+            if (length > MAX_FIELD_LENGTH) {
+                throw new IllegalArgumentException("Запись посещения слишком длинная: " + length);
+            }
+            data.writeShort(length);
+            writeField(data, app);
+            writeField(data, uri);
+            writeField(data, ip);
+            data.writeLong(hit.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            writeField(data, hitId);
+        }
+        data.flush();
+    }
+
+    public static List<EndpointHitDto> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        List<EndpointHitDto> hits = new ArrayList<>();
+        int high;
+        while ((high = data.read()) != -1) {
+            try {
+                byte[] record = new byte[high << 8 | data.readUnsignedByte()];
+                data.readFully(record);
+                hits.add(decode(ByteBuffer.wrap(record)));
+            } catch (EOFException | BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+                throw new ValidationException("Некорректная запись посещения");
+            }
+        }
+        return hits;
+    }
+
+    private static EndpointHitDto decode(ByteBuffer record) {
+        EndpointHitDto hit = EndpointHitDto.builder()
+                .app(readField(record))
+                .uri(readField(record))
+                .ip(readField(record))
+                .timestamp(LocalDateTime.ofEpochSecond(record.getLong(), 0, ZoneOffset.UTC))
+                .build();
+        String hitId = readField(record);
+        hit.setHitId(hitId.isEmpty() ? null : hitId);
+        if (record.hasRemaining()) {
+            throw new IllegalArgumentException();
+        }
+        return hit;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeField(DataOutputStream data, byte[] value) throws IOException {
+        data.writeShort(value.length);
+        data.write(value);
+    }
+
+    private static String readField(ByteBuffer record) {
+        int length = Short.toUnsignedInt(record.getShort());
+        if (length > record.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class TimeSeriesStatsDto extends ViewStatsDto {
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime bucket;
+    Long uniqueHits;
+
+    public TimeSeriesStatsDto(LocalDateTime bucket, String app, String uri, Long hits, Long uniqueHits) {
+        super(app, uri, hits);
+        this.bucket = bucket;
+        this.uniqueHits = uniqueHits;
+    }
+}
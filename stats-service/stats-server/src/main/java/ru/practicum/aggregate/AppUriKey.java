@@ -0,0 +1,19 @@
+package ru.practicum.aggregate;
+
+public final class AppUriKey {
+
+    private AppUriKey() {
+    }
+
+    public static long of(int appId, int uriId) {
+        return (long) appId << 32 | (uriId & 0xFFFFFFFFL);
+    }
+
+    public static int appId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int uriId(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.aggregate;
+
+import java.util.function.IntConsumer;
+
+public final class IntSet {
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int BITS_PER_VALUE = 64;
+
+    private int[] table = new int[INITIAL_CAPACITY];
+    private long[] bitmap;
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    private int tableSize;
+    private int maxValue;
+    private boolean negative;
+    private boolean hasEmpty;
+
+    public boolean add(int value) {
+        if (bitmap != null) {
+            if (value >= 0 && (value >> 6 < bitmap.length || (long) (size + 1) * BITS_PER_VALUE > value)) {
+                return setBit(value);
+            }
+            toTable();
+        }
+        if (value == EMPTY) {
+            if (hasEmpty) {
+                return false;
+            }
+            hasEmpty = true;
+            size++;
+            return true;
+        }
+        int slot = slot(value);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        tableSize++;
+        size++;
+        if (value < 0) {
+            negative = true;
+        } else if (value > maxValue) {
+            maxValue = value;
+        }
+        if (tableSize > table.length >> 1) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (bitmap != null) {
+            return value >= 0 && value >> 6 < bitmap.length && (bitmap[value >> 6] & 1L << value) != 0;
+        }
+        if (value == EMPTY) {
+            return hasEmpty;
+        }
+        for (int slot = slot(value); table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addAll(IntSet other) {
+        other.forEach(this::add);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        if (bitmap != null) {
+            for (int word = 0; word < bitmap.length; word++) {
+                long bits = bitmap[word];
+                while (bits != 0) {
+                    consumer.accept(word << 6 | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return;
+        }
+        if (hasEmpty) {
+            consumer.accept(EMPTY);
+        }
+        for (int value : table) {
+            if (value != EMPTY) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int[] position = new int[1];
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    boolean usesBitmap() {
+        return bitmap != null;
+    }
+
+    private boolean setBit(int value) {
+        int word = value >> 6;
+        if (word >= bitmap.length) {
+            long[] grown = new long[Math.max(word + 1, bitmap.length << 1)];
+            System.arraycopy(bitmap, 0, grown, 0, bitmap.length);
+            bitmap = grown;
+        }
+        long bit = 1L << value;
+        if ((bitmap[word] & bit) != 0) {
+            return false;
+        }
+        bitmap[word] |= bit;
+        size++;
+        return true;
+    }
+
+    private void grow() {
+        if (!negative && (long) size * BITS_PER_VALUE > maxValue) {
+            toBitmap();
+            return;
+        }
+        int[] old = table;
+        table = new int[old.length << 1];
+        mask = table.length - 1;
+        for (int value : old) {
+            if (value != EMPTY) {
+                int slot = slot(value);
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private void toBitmap() {
+        long[] bits = new long[(maxValue >> 6) + 1];
+        for (int value : table) {
+            if (value != EMPTY) {
+                bits[value >> 6] |= 1L << value;
+            }
+        }
+        if (hasEmpty) {
+            bits[0] |= 1L;
+        }
+        bitmap = bits;
+        table = null;
+    }
+
+    private void toTable() {
+        int[] values = toArray();
+        bitmap = null;
+        table = new int[Math.max(INITIAL_CAPACITY, Integer.highestOneBit(values.length) << 2)];
+        mask = table.length - 1;
+        size = 0;
+        tableSize = 0;
+        maxValue = 0;
+        hasEmpty = false;
+        for (int value : values) {
+            add(value);
+        }
+    }
+
+    private int slot(int value) {
+        int hash = value * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
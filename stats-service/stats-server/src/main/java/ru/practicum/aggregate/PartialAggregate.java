@@ -0,0 +1,38 @@
+package ru.practicum.aggregate;
+
+public final class PartialAggregate {
+    private final long[] keys;
+    private final long[] hits;
+
+    PartialAggregate(long[] keys, long[] hits) {
+        this.keys = keys;
+        this.hits = hits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void mergeInto(StatsAggregator aggregator) {
+        for (int i = 0; i < keys.length; i++) {
+            aggregator.addHits(AppUriKey.appId(keys[i]), AppUriKey.uriId(keys[i]), hits[i]);
+        }
+    }
+
+    public int weight() {
+        return 1 + keys.length;
+    }
+
+    public static class Builder {
+        private final StatsAggregator hits = new StatsAggregator(false);
+
+        public Builder addHits(int appId, int uriId, long count) {
+            hits.addHits(appId, uriId, count);
+            return this;
+        }
+
+        public PartialAggregate build() {
+            return hits.toPartial();
+        }
+    }
+}
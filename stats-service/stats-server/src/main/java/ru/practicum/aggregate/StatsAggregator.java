@@ -0,0 +1,133 @@
+package ru.practicum.aggregate;
+
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.DictionaryTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public class StatsAggregator {
+    private static final long ABSENT = -1;
+
+    private final boolean unique;
+    private final LongLongHashMap ordinals = new LongLongHashMap();
+    private long[] keys = new long[16];
+    private long[] hits = new long[16];
+    private IntSet[] ips;
+    private int size;
+
+    public StatsAggregator(boolean unique) {
+        this.unique = unique;
+        this.ips = unique ? new IntSet[16] : null;
+    }
+
+    public void add(int appId, int uriId, int ipId) {
+        int ordinal = ordinal(AppUriKey.of(appId, uriId));
+        if (unique) {
+            ips(ordinal).add(ipId);
+        } else {
+            hits[ordinal]++;
+        }
+    }
+
+    public void addAll(int[] appIds, int[] uriIds, int[] ipIds, int from, int to) {
+        long lastKey = ABSENT;
+        int ordinal = 0;
+        for (int i = from; i < to; i++) {
+            long key = AppUriKey.of(appIds[i], uriIds[i]);
+            if (key != lastKey) {
+                ordinal = ordinal(key);
+                lastKey = key;
+            }
+            if (unique) {
+                ips(ordinal).add(ipIds[i]);
+            } else {
+                hits[ordinal]++;
+            }
+        }
+    }
+
+    public void addHits(int appId, int uriId, long count) {
+        if (!unique) {
+            hits[ordinal(AppUriKey.of(appId, uriId))] += count;
+        }
+    }
+
+    public void merge(StatsAggregator other) {
+        for (int i = 0; i < other.size; i++) {
+            if (!unique) {
+                hits[ordinal(other.keys[i])] += other.hits[i];
+            } else if (other.unique) {
+                ips(ordinal(other.keys[i])).addAll(other.ips[i]);
+            }
+        }
+    }
+
+    public List<ViewStatsDto> toViewStats(BiFunction<DictionaryTable, Collection<Integer>, Map<Integer, String>> names) {
+        return toViewStats(names, null);
+    }
+
+    public List<ViewStatsDto> toViewStats(BiFunction<DictionaryTable, Collection<Integer>, Map<Integer, String>> names,
+                                          Integer limit) {
+        long[] scores = scores();
+        int[] top = TopK.select(scores, size, limit);
+        List<Integer> appIds = new ArrayList<>(top.length);
+        List<Integer> uriIds = new ArrayList<>(top.length);
+        for (int ordinal : top) {
+            appIds.add(AppUriKey.appId(keys[ordinal]));
+            uriIds.add(AppUriKey.uriId(keys[ordinal]));
+        }
+        Map<Integer, String> apps = names.apply(DictionaryTable.APP, appIds);
+        Map<Integer, String> uris = names.apply(DictionaryTable.URI, uriIds);
+        List<ViewStatsDto> stats = new ArrayList<>(top.length);
+        for (int i = 0; i < top.length; i++) {
+            stats.add(new ViewStatsDto(apps.get(appIds.get(i)), uris.get(uriIds.get(i)), scores[top[i]]));
+        }
+        return stats;
+    }
+
+    PartialAggregate toPartial() {
+        return new PartialAggregate(Arrays.copyOf(keys, size), Arrays.copyOf(hits, size));
+    }
+
+    private long[] scores() {
+        if (!unique) {
+            return hits;
+        }
+        long[] scores = new long[size];
+        for (int i = 0; i < size; i++) {
+            scores[i] = ips[i].size();
+        }
+        return scores;
+    }
+
+    private int ordinal(long key) {
+        long ordinal = ordinals.get(key, ABSENT);
+        if (ordinal != ABSENT) {
+            return (int) ordinal;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            hits = Arrays.copyOf(hits, size << 1);
+            if (unique) {
+                ips = Arrays.copyOf(ips, size << 1);
+            }
+        }
+        keys[size] = key;
+        ordinals.put(key, size);
+        return size++;
+    }
+
+    private IntSet ips(int ordinal) {
+        IntSet set = ips[ordinal];
+        if (set == null) {
+            set = new IntSet();
+            ips[ordinal] = set;
+        }
+        return set;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.aggregate;
+
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.model.DictionaryTable;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public class TimeSeriesAggregator {
+    private static final long ABSENT = -1;
+
+    private final long bucketMillis;
+    private final LongLongHashMap bucketOrdinals = new LongLongHashMap();
+    private long[] bucketStarts = new long[16];
+    private LongLongHashMap[] rowOrdinals = new LongLongHashMap[16];
+    private int bucketCount;
+    private long lastBucket = Long.MIN_VALUE;
+    private int lastBucketOrdinal;
+    private int[] buckets = new int[16];
+    private long[] keys = new long[16];
+    private long[] hits = new long[16];
+    private IntSet[] ips = new IntSet[16];
+    private int size;
+
+    public TimeSeriesAggregator(ChronoUnit unit) {
+        this.bucketMillis = unit.getDuration().toMillis();
+    }
+
+    public void add(long timestamp, int appId, int uriId, int ipId) {
+        int ordinal = ordinal(bucketOrdinal(timestamp - Math.floorMod(timestamp, bucketMillis)),
+                AppUriKey.of(appId, uriId));
+        hits[ordinal]++;
+        ips[ordinal].add(ipId);
+    }
+
+    public List<TimeSeriesStatsDto> toTimeSeries(
+            BiFunction<DictionaryTable, Collection<Integer>, Map<Integer, String>> names) {
+        List<Integer> appIds = new ArrayList<>(size);
+        List<Integer> uriIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            appIds.add(AppUriKey.appId(keys[i]));
+            uriIds.add(AppUriKey.uriId(keys[i]));
+        }
+        Map<Integer, String> apps = names.apply(DictionaryTable.APP, appIds);
+        Map<Integer, String> uris = names.apply(DictionaryTable.URI, uriIds);
+
+        int[] offsets = new int[bucketCount + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[buckets[i] + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+        int[] grouped = new int[size];
+        int[] next = Arrays.copyOf(offsets, bucketCount);
+        for (int i = 0; i < size; i++) {
+            grouped[next[buckets[i]]++] = i;
+        }
+
+        long[] starts = Arrays.copyOf(bucketStarts, bucketCount);
+        Arrays.sort(starts);
+        List<TimeSeriesStatsDto> series = new ArrayList<>(size);
+        long[] scores = new long[size];
+        for (long start : starts) {
+            int bucket = (int) bucketOrdinals.get(start, ABSENT);
+            int from = offsets[bucket];
+            int count = offsets[bucket + 1] - from;
+            for (int i = 0; i < count; i++) {
+                scores[i] = hits[grouped[from + i]];
+            }
+            LocalDateTime time = TimeBuckets.fromEpochMilli(start);
+            for (int position : TopK.select(scores, count, null)) {
+                int ordinal = grouped[from + position];
+                series.add(new TimeSeriesStatsDto(time, apps.get(appIds.get(ordinal)), uris.get(uriIds.get(ordinal)),
+                        hits[ordinal], (long) ips[ordinal].size()));
+            }
+        }
+        return series;
+    }
+
+    private int bucketOrdinal(long bucket) {
+        if (bucket == lastBucket) {
+            return lastBucketOrdinal;
+        }
+        long ordinal = bucketOrdinals.get(bucket, ABSENT);
+        if (ordinal == ABSENT) {
+            if (bucketCount == bucketStarts.length) {
+                bucketStarts = Arrays.copyOf(bucketStarts, bucketCount << 1);
+                rowOrdinals = Arrays.copyOf(rowOrdinals, bucketCount << 1);
+            }
+            bucketStarts[bucketCount] = bucket;
+            rowOrdinals[bucketCount] = new LongLongHashMap();
+            bucketOrdinals.put(bucket, bucketCount);
+            ordinal = bucketCount++;
+        }
+        lastBucket = bucket;
+        lastBucketOrdinal = (int) ordinal;
+        return lastBucketOrdinal;
+    }
+
+    private int ordinal(int bucket, long key) {
+        LongLongHashMap rows = rowOrdinals[bucket];
+        long ordinal = rows.get(key, ABSENT);
+        if (ordinal != ABSENT) {
+            return (int) ordinal;
+        }
+        if (size == keys.length) {
+            buckets = Arrays.copyOf(buckets, size << 1);
+            keys = Arrays.copyOf(keys, size << 1);
+            hits = Arrays.copyOf(hits, size << 1);
+            ips = Arrays.copyOf(ips, size << 1);
+        }
+        buckets[size] = bucket;
+        keys[size] = key;
+        ips[size] = new IntSet();
+        rows.put(key, size);
+        return size++;
+    }
+}
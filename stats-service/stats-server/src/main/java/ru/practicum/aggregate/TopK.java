@@ -0,0 +1,91 @@
+package ru.practicum.aggregate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class TopK {
+
+    private TopK() {
+    }
+
+    public static <T> List<T> select(Collection<T> values, Comparator<? super T> comparator, Integer limit) {
+        if (limit == null || limit >= values.size()) {
+            List<T> sorted = new ArrayList<>(values);
+            sorted.sort(comparator.reversed());
+            return sorted;
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(limit + 1, comparator);
+        for (T value : values) {
+            if (heap.size() < limit) {
+                heap.add(value);
+            } else if (limit > 0 && comparator.compare(value, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(value);
+            }
+        }
+        List<T> top = new ArrayList<>(heap);
+        top.sort(comparator.reversed());
+        return top;
+    }
+
+    public static int[] select(long[] scores, int size, Integer limit) {
+        int k = limit == null ? size : Math.max(0, Math.min(limit, size));
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < k) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores);
+            } else if (k > 0 && scores[i] > scores[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, k, scores);
+            }
+        }
+        int[] top = new int[heapSize];
+        for (int n = heapSize; n > 0; n--) {
+            top[n - 1] = heap[0];
+            heap[0] = heap[n - 1];
+            siftDown(heap, n - 1, scores);
+        }
+        return top;
+    }
+
+    private static void siftUp(int[] heap, int index, long[] scores) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[value]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, long[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[heap[child + 1]] < scores[heap[child]]) {
+                child++;
+            }
+            if (scores[value] <= scores[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.aggregate;
+
+import java.util.BitSet;
+import java.util.List;
+
+public final class UriFilter {
+    private final BitSet uriIds;
+
+    private UriFilter(BitSet uriIds) {
+        this.uriIds = uriIds;
+    }
+
+    public static UriFilter of(List<Integer> uriIds) {
+        if (uriIds == null) {
+            return new UriFilter(null);
+        }
+        BitSet bits = new BitSet();
+        uriIds.forEach(bits::set);
+        return new UriFilter(bits);
+    }
+
+    public boolean matchesAll() {
+        return uriIds == null;
+    }
+
+    public boolean matches(int uriId) {
+        return uriIds == null || uriIds.get(uriId);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.backfill;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public record BackfillResult(long hits,
+                             @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+                             @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to) {
+}
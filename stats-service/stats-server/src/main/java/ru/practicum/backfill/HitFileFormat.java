@@ -0,0 +1,6 @@
+package ru.practicum.backfill;
+
+public enum HitFileFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,121 @@
+package ru.practicum.backfill;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.util.IpAddresses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HitFileReader {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int CSV_COLUMNS = 4;
+
+    private final BufferedReader reader;
+    private final HitFileFormat format;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public HitFileReader(BufferedReader reader, HitFileFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<EndpointHitDto> read(int limit) throws IOException {
+        List<EndpointHitDto> hits = new ArrayList<>(limit);
+        String line;
+        while (hits.size() < limit && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || format == HitFileFormat.CSV && lineNumber == 1 && line.startsWith("app,")) {
+                continue;
+            }
+            EndpointHitDto hit = format == HitFileFormat.NDJSON ? parseJson(line) : parseCsv(line);
+            validate(hit);
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    private EndpointHitDto parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, EndpointHitDto.class);
+        } catch (JsonProcessingException e) {
+            throw invalid(e.getOriginalMessage());
+        }
+    }
+
+    private EndpointHitDto parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != CSV_COLUMNS) {
+            throw invalid("ожидается " + CSV_COLUMNS + " поля app,uri,ip,timestamp, получено " + fields.size());
+        }
+        try {
+            return EndpointHitDto.builder()
+                    .app(fields.get(0))
+                    .uri(fields.get(1))
+                    .ip(fields.get(2))
+                    .timestamp(LocalDateTime.parse(fields.get(3), FORMAT))
+                    .build();
+        } catch (DateTimeParseException e) {
+            throw invalid("неверная дата " + fields.get(3));
+        }
+    }
+
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw invalid("незакрытые кавычки");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void validate(EndpointHitDto hit) {
+        if (isBlank(hit.getApp()) || isBlank(hit.getUri()) || isBlank(hit.getIp()) || hit.getTimestamp() == null) {
+            throw invalid("app, uri, ip и timestamp обязательны");
+        }
+        try {
+            IpAddresses.toBytes(hit.getIp());
+        } catch (ValidationException e) {
+            throw invalid(e.getMessage());
+        }
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private ValidationException invalid(String reason) {
+        return new ValidationException("Строка " + lineNumber + ": " + reason);
+    }
+}
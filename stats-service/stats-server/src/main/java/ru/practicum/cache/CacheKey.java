@@ -0,0 +1,7 @@
+package ru.practicum.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+record CacheKey(LocalDateTime bucket, List<Integer> uriIds) {
+}
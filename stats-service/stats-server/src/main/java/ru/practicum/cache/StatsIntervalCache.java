@@ -0,0 +1,215 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.PartialAggregate;
+import ru.practicum.aggregate.StatsAggregator;
+import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.service.StatsDictionary;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class StatsIntervalCache {
+    private static final Set<ChronoUnit> BUCKET_UNITS = Set.of(ChronoUnit.MINUTES, ChronoUnit.HOURS, ChronoUnit.DAYS);
+
+    private final StatsRepository statsRepository;
+    private final StatsDictionary dictionary;
+    private final ChronoUnit unit;
+    private final long maxWeight;
+    private final Map<CacheKey, PartialAggregate> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    private long weight;
+    private long generation;
+
+    public StatsIntervalCache(StatsRepository statsRepository,
+                              StatsDictionary dictionary,
+                              MeterRegistry meterRegistry,
+                              @Value("${stats.cache.bucket-unit:HOURS}") ChronoUnit unit,
+                              @Value("${stats.cache.max-weight:10000000}") long maxWeight) {
+        if (!BUCKET_UNITS.contains(unit)) {
+            throw new IllegalArgumentException("Неподдерживаемый интервал кэша: " + unit);
+        }
+        this.statsRepository = statsRepository;
+        this.dictionary = dictionary;
+        this.unit = unit;
+        this.maxWeight = maxWeight;
+        this.hits = Counter.builder("stats.cache.buckets").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("stats.cache.buckets").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("stats.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.invalidations = Counter.builder("stats.cache.evictions").tag("cause", "late-hit")
+                .register(meterRegistry);
+        Gauge.builder("stats.cache.entries", this, StatsIntervalCache::size).register(meterRegistry);
+        Gauge.builder("stats.cache.weight", this, StatsIntervalCache::weight).register(meterRegistry);
+    }
+
+    public Optional<List<ViewStatsDto>> findStats(StatsQuery query) {
+        if (query.isUnique()) {
+            return Optional.empty();
+        }
+        LocalDateTime first = TimeBuckets.ceil(query.getStart(), unit);
+        LocalDateTime closed = TimeBuckets.floor(query.getEnd(), unit);
+        LocalDateTime open = TimeBuckets.floor(LocalDateTime.now(), unit);
+        if (open.isBefore(closed)) {
+            closed = open;
+        }
+        if (!first.isBefore(closed)) {
+            return Optional.empty();
+        }
+        List<Integer> uriIds = query.getUriIds() == null ? null
+                : query.getUriIds().stream().distinct().sorted().toList();
+        List<PartialAggregate> cached = new ArrayList<>();
+        List<LocalDateTime> missing = new ArrayList<>();
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+            for (LocalDateTime bucket = first; bucket.isBefore(closed); bucket = bucket.plus(1, unit)) {
+                PartialAggregate partial = entries.get(new CacheKey(bucket, uriIds));
+                if (partial != null) {
+                    cached.add(partial);
+                } else {
+                    missing.add(bucket);
+                }
+            }
+        }
+        hits.increment(cached.size());
+        misses.increment(missing.size());
+
+        StatsAggregator aggregator = new StatsAggregator(false);
+        cached.forEach(partial -> partial.mergeInto(aggregator));
+        Map<LocalDateTime, PartialAggregate> loaded = load(missing, uriIds);
+        loaded.values().forEach(partial -> partial.mergeInto(aggregator));
+        store(loaded, uriIds, startGeneration);
+
+        addRange(aggregator, query.getStart(), first, false, uriIds);
+        addRange(aggregator, closed, query.getEnd(), !query.isEndExclusive(), uriIds);
+        return Optional.of(aggregator.toViewStats(dictionary::names, query.getLimit()));
+    }
+
+    public void invalidate(List<Stats> lateHits) {
+        LocalDateTime open = TimeBuckets.floor(LocalDateTime.now(), unit);
+        Map<LocalDateTime, Set<Integer>> touched = new HashMap<>();
+        for (Stats hit : lateHits) {
+            LocalDateTime bucket = TimeBuckets.floor(hit.getTimestamp(), unit);
+            if (bucket.isBefore(open)) {
+                touched.computeIfAbsent(bucket, k -> new HashSet<>()).add(hit.getUriId());
+            }
+        }
+        if (touched.isEmpty()) {
+            return;
+        }
+        int removed = 0;
+        synchronized (this) {
+            generation++;
+            Iterator<Map.Entry<CacheKey, PartialAggregate>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CacheKey, PartialAggregate> entry = iterator.next();
+                Set<Integer> uris = touched.get(entry.getKey().bucket());
+                if (uris != null && (entry.getKey().uriIds() == null
+                        || !Collections.disjoint(entry.getKey().uriIds(), uris))) {
+                    weight -= entry.getValue().weight();
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            invalidations.increment(removed);
+            log.debug("Сброшено интервалов кэша статистики из-за поздних посещений: {}", removed);
+        }
+    }
+
+    public void clear() {
+        int removed;
+        synchronized (this) {
+            generation++;
+            removed = entries.size();
+            entries.clear();
+            weight = 0;
+        }
+        invalidations.increment(removed);
+        log.debug("Кэш статистики сброшен: {} интервалов", removed);
+    }
+
+    private Map<LocalDateTime, PartialAggregate> load(List<LocalDateTime> missing, List<Integer> uriIds) {
+        Map<LocalDateTime, PartialAggregate.Builder> builders = new TreeMap<>();
+        missing.forEach(bucket -> builders.put(bucket, PartialAggregate.builder()));
+        int runStart = 0;
+        for (int i = 1; i <= missing.size(); i++) {
+            if (i < missing.size() && missing.get(i).equals(missing.get(i - 1).plus(1, unit))) {
+                continue;
+            }
+            LocalDateTime from = missing.get(runStart);
+            LocalDateTime to = missing.get(i - 1).plus(1, unit);
+            statsRepository.forEachBucketCount(unit, from, to, false, uriIds,
+                    (bucket, appId, uriId, count) -> builders.get(bucket).addHits(appId, uriId, count));
+            runStart = i;
+        }
+        Map<LocalDateTime, PartialAggregate> loaded = new TreeMap<>();
+        builders.forEach((bucket, builder) -> loaded.put(bucket, builder.build()));
+        return loaded;
+    }
+
+    private synchronized void store(Map<LocalDateTime, PartialAggregate> loaded, List<Integer> uriIds,
+                                    long startGeneration) {
+        if (loaded.isEmpty() || generation != startGeneration) {
+            return;
+        }
+        loaded.forEach((bucket, partial) -> {
+            PartialAggregate previous = entries.put(new CacheKey(bucket, uriIds), partial);
+            weight += partial.weight() - (previous == null ? 0 : previous.weight());
+        });
+        int evicted = 0;
+        Iterator<PartialAggregate> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().weight();
+            iterator.remove();
+            evicted++;
+        }
+        sizeEvictions.increment(evicted);
+    }
+
+    private void addRange(StatsAggregator aggregator, LocalDateTime from, LocalDateTime to, boolean inclusive,
+                          List<Integer> uriIds) {
+        if (to.isBefore(from) || to.equals(from) && !inclusive) {
+            return;
+        }
+        statsRepository.forEachBucketCount(unit, from, to, inclusive, uriIds,
+                (bucket, appId, uriId, count) -> aggregator.addHits(appId, uriId, count));
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long weight() {
+        return weight;
+    }
+}
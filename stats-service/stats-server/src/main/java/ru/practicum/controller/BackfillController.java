@@ -0,0 +1,40 @@
+package ru.practicum.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.backfill.BackfillResult;
+import ru.practicum.backfill.HitFileFormat;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.service.BackfillService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.backfill.enabled", havingValue = "true")
+@ConditionalOnJdbcStorage
+public class BackfillController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final BackfillService backfillService;
+
+    @PostMapping(value = "/admin/backfill", consumes = {NDJSON, CSV})
+    public BackfillResult backfill(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                   InputStream body) throws IOException {
+        HitFileFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? HitFileFormat.CSV : HitFileFormat.NDJSON;
+        log.info("Загрузка исторических посещений в формате {}", format);
+        BackfillResult result = backfillService.load(body, format);
+        log.info("Загрузка исторических посещений завершена: {}", result);
+        return result;
+    }
+}
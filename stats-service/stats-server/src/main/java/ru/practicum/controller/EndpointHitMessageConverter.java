@@ -0,0 +1,68 @@
+package ru.practicum.controller;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import ru.practicum.EndpointHitCodec;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.exception.ValidationException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+@Component
+public class EndpointHitMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public EndpointHitMessageConverter() {
+        super(MediaType.parseMediaType(EndpointHitCodec.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EndpointHitDto.class.equals(clazz) || List.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (EndpointHitDto.class.equals(type) || isHitList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (EndpointHitDto.class.equals(type != null ? type : clazz) || isHitList(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        List<EndpointHitDto> hits = EndpointHitCodec.read(inputMessage.getBody());
+        if (isHitList(type)) {
+            return hits;
+        }
+        if (hits.size() != 1) {
+            throw new ValidationException("Ожидалась одна запись посещения, получено: " + hits.size());
+        }
+        return hits.getFirst();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        List<EndpointHitDto> hits = value instanceof EndpointHitDto hit ? List.of(hit)
+                : ((List<?>) value).stream().map(EndpointHitDto.class::cast).toList();
+        EndpointHitCodec.write(hits, outputMessage.getBody());
+    }
+
+    private boolean isHitList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && List.class.equals(parameterized.getRawType())
+                && EndpointHitDto.class.equals(parameterized.getActualTypeArguments()[0]);
+    }
+}
@@ -1,27 +1,48 @@
 package ru.practicum.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.EndpointHitDto;
+import ru.practicum.TimeSeriesStatsDto;
 import ru.practicum.ViewStatsDto;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.service.StatsService;
+import ru.practicum.service.StatsStream;
+import ru.practicum.trending.Trending;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class StatsController {
     private final StatsService statsService;
+    private final ObjectMapper objectMapper;
     private static final String FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final String ERROR_BOUND_HEADER = "X-Stats-Error-Bound";
+    private static final String WINDOW_HITS_HEADER = "X-Stats-Window-Hits";
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -30,18 +51,100 @@ public class StatsController {
         statsService.postHit(hit);
     }
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void postHits(@RequestBody List<@Valid EndpointHitDto> hits) {
+        log.info("Пакет посещений: {} шт.", hits.size());
+        statsService.postHits(hits);
+    }
+
     @GetMapping("/stats")
-    @ResponseStatus(HttpStatus.OK)
-    public List<ViewStatsDto> getStats(@RequestParam(required = false) String start,
-                                       @RequestParam(required = false) String end,
-                                       @RequestParam(required = false) List<String> uris,
-                                       @RequestParam(defaultValue = "false") Boolean unique) {
-        if (start == null || end == null) throw new ValidationException("Начало и конец евента не должны быть пустыми");
-        LocalDateTime rightStart = LocalDateTime.parse(URLDecoder.decode(start, StandardCharsets.UTF_8),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        LocalDateTime rightEnd = LocalDateTime.parse(URLDecoder.decode(end, StandardCharsets.UTF_8),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        log.info("Запрос на статистику с параметрами: start={}, end={}, uris={}, unique={}", start, end, uris, unique);
-        return statsService.getStats(rightStart, rightEnd, uris, unique);
-    }
-}
\ No newline at end of file
+    public ResponseEntity<StreamingResponseBody> getStats(@RequestParam(required = false) String start,
+                                                          @RequestParam(required = false) String end,
+                                                          @RequestParam(required = false) List<String> uris,
+                                                          @RequestParam(defaultValue = "false") Boolean unique,
+                                                          @RequestParam(defaultValue = "false") Boolean approximate) {
+        LocalDateTime rightStart = parseDate(start);
+        LocalDateTime rightEnd = parseDate(end);
+        log.info("Запрос на статистику с параметрами: start={}, end={}, uris={}, unique={}, approximate={}",
+                start, end, uris, unique, approximate);
+        StatsStream stats = statsService.getStats(rightStart, rightEnd, uris, unique, approximate);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Double errorBound = unique && approximate ? statsService.getUniqueErrorBound() : null;
+        if (errorBound != null) {
+            headers.set(ERROR_BOUND_HEADER, String.format(Locale.ROOT, "%.4f", errorBound));
+        }
+        return new ResponseEntity<>(out -> writeJsonArray(stats, out), headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/top")
+    public List<ViewStatsDto> getTopStats(@RequestParam(required = false) String start,
+                                          @RequestParam(required = false) String end,
+                                          @RequestParam(defaultValue = "10") @Positive @Max(1000) Integer limit,
+                                          @RequestParam(defaultValue = "false") Boolean unique) {
+        log.info("Запрос популярных uri с параметрами: start={}, end={}, limit={}, unique={}",
+                start, end, limit, unique);
+        return statsService.getTopStats(parseDate(start), parseDate(end), limit, unique);
+    }
+
+    @GetMapping("/stats/trending")
+    public ResponseEntity<List<ViewStatsDto>> getTrending(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") @Positive @Max(1000) Integer limit) {
+        log.info("Запрос набирающих популярность uri: window={}, limit={}", window, limit);
+        Trending trending = statsService.getTrending(window, limit);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ERROR_BOUND_HEADER, String.format(Locale.ROOT, "%.4f", trending.errorBound()));
+        headers.set(WINDOW_HITS_HEADER, String.valueOf(trending.windowHits()));
+        return new ResponseEntity<>(trending.stats(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/events")
+    public Map<Long, Long> getEventViews(@RequestParam List<Long> ids,
+                                         @RequestParam(defaultValue = "false") Boolean unique) {
+        log.info("Запрос просмотров событий: ids={}, unique={}", ids, unique);
+        return statsService.getEventViews(ids, unique);
+    }
+
+    @GetMapping("/stats/timeseries")
+    public List<TimeSeriesStatsDto> getTimeSeries(@RequestParam(required = false) String start,
+                                                  @RequestParam(required = false) String end,
+                                                  @RequestParam(required = false) List<String> uris,
+                                                  @RequestParam(defaultValue = "hour") String interval) {
+        log.info("Запрос временного ряда с параметрами: start={}, end={}, uris={}, interval={}",
+                start, end, uris, interval);
+        return statsService.getTimeSeries(parseDate(start), parseDate(end), uris, parseInterval(interval));
+    }
+
+    private ChronoUnit parseInterval(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "minute" -> ChronoUnit.MINUTES;
+            case "hour" -> ChronoUnit.HOURS;
+            case "day" -> ChronoUnit.DAYS;
+            default -> throw new ValidationException("Неподдерживаемый интервал: " + value);
+        };
+    }
+
+    private LocalDateTime parseDate(String value) {
+        if (value == null) throw new ValidationException("Начало и конец евента не должны быть пустыми");
+        return LocalDateTime.parse(URLDecoder.decode(value, StandardCharsets.UTF_8), DateTimeFormatter.ofPattern(FORMAT));
+    }
+
+    private void writeJsonArray(StatsStream stats, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.writeStartArray();
+            stats.forEach(dto -> {
+                try {
+                    generator.writeObject(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+}
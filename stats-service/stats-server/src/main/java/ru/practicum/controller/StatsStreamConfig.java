@@ -0,0 +1,32 @@
+package ru.practicum.controller;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class StatsStreamConfig implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public StatsStreamConfig(@Value("${stats.query.stream.threads:16}") int threads,
+                             @Value("${stats.query.stream.queue-capacity:64}") int queueCapacity) {
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stats-stream-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
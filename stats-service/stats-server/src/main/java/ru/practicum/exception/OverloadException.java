@@ -0,0 +1,13 @@
+package ru.practicum.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OverloadException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public OverloadException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.hotwindow;
+
+class HitChunk {
+    final long[] timestamps;
+    final int[] appIds;
+    final int[] uriIds;
+    final int[] ipIds;
+    int size;
+    long minTimestamp = Long.MAX_VALUE;
+    long maxTimestamp = Long.MIN_VALUE;
+
+    HitChunk(int capacity) {
+        timestamps = new long[capacity];
+        appIds = new int[capacity];
+        uriIds = new int[capacity];
+        ipIds = new int[capacity];
+    }
+
+    boolean isFull() {
+        return size == timestamps.length;
+    }
+
+    void add(long timestamp, int appId, int uriId, int ipId) {
+        timestamps[size] = timestamp;
+        appIds[size] = appId;
+        uriIds[size] = uriId;
+        ipIds[size] = ipId;
+        size++;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.hotwindow;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.StatsAggregator;
+import ru.practicum.aggregate.TimeSeriesAggregator;
+import ru.practicum.aggregate.TopK;
+import ru.practicum.aggregate.UriFilter;
+import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.service.StatsDictionary;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.hot-window.enabled", havingValue = "true", matchIfMissing = true)
+public class HotWindowStore {
+    private static final int CHUNK_SIZE = 65536;
+
+    private final StatsRepository statsRepository;
+    private final StatsDictionary dictionary;
+    private final int hours;
+    private final long maxHits;
+    private final List<HitChunk> chunks = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long coveredFrom = Long.MAX_VALUE;
+    private long size;
+
+    public HotWindowStore(StatsRepository statsRepository,
+                          StatsDictionary dictionary,
+                          @Value("${stats.hot-window.hours:24}") int hours,
+                          @Value("${stats.hot-window.max-hits:5000000}") long maxHits) {
+        this.statsRepository = statsRepository;
+        this.dictionary = dictionary;
+        this.hours = hours;
+        this.maxHits = Math.max(maxHits, 2L * CHUNK_SIZE);
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime from = LocalDateTime.now().minusHours(hours);
+        lock.writeLock().lock();
+        try {
+            coveredFrom = TimeBuckets.toEpochMilli(from);
+            statsRepository.forEachHit(from, this::append);
+            log.info("Загружено посещений в горячее окно: {}", size);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(List<Stats> hits) {
+        lock.writeLock().lock();
+        try {
+            hits.forEach(this::append);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean covers(LocalDateTime start) {
+        lock.readLock().lock();
+        try {
+            return TimeBuckets.toEpochMilli(start) >= coveredFrom;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<List<ViewStatsDto>> findStats(StatsQuery query) {
+        long start = TimeBuckets.toEpochMilli(query.getStart());
+        long end = TimeBuckets.toEpochMilli(query.getEnd());
+        UriFilter uriFilter = UriFilter.of(query.getUriIds());
+        StatsAggregator aggregator = new StatsAggregator(query.isUnique());
+        long boundary;
+        lock.readLock().lock();
+        try {
+            boundary = coveredFrom;
+            if (end < boundary) {
+                return Optional.empty();
+            }
+            aggregate(Math.max(start, boundary), end, uriFilter, aggregator);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (start >= boundary) {
+            return Optional.of(aggregator.toViewStats(dictionary::names, query.getLimit()));
+        }
+        if (query.isUnique()) {
+            return Optional.empty();
+        }
+        LocalDateTime boundaryTime = TimeBuckets.fromEpochMilli(boundary);
+        List<ViewStatsDto> stored = statsRepository.findStats(query.toBuilder()
+                .end(boundaryTime)
+                .endExclusive(true)
+                .limit(null)
+                .build());
+        return Optional.of(merge(stored, aggregator.toViewStats(dictionary::names), query.getLimit()));
+    }
+
+    public Optional<List<TimeSeriesStatsDto>> findTimeSeries(ChronoUnit unit, StatsQuery query) {
+        long start = TimeBuckets.toEpochMilli(query.getStart());
+        long end = TimeBuckets.toEpochMilli(query.getEnd());
+        UriFilter uriFilter = UriFilter.of(query.getUriIds());
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(unit);
+        lock.readLock().lock();
+        try {
+            if (start < coveredFrom) {
+                return Optional.empty();
+            }
+            forEachHit(start, query.isEndExclusive() ? end - 1 : end, uriFilter, aggregator::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(aggregator.toTimeSeries(dictionary::names));
+    }
+
+    @Scheduled(fixedDelayString = "${stats.hot-window.evict-interval-ms:60000}")
+    public void evict() {
+        long cutoff = TimeBuckets.toEpochMilli(LocalDateTime.now().minusHours(hours));
+        lock.writeLock().lock();
+        try {
+            if (coveredFrom == Long.MAX_VALUE) {
+                return;
+            }
+            coveredFrom = Math.max(coveredFrom, cutoff);
+            int before = chunks.size();
+            chunks.removeIf(chunk -> {
+                if (chunk.maxTimestamp < cutoff) {
+                    size -= chunk.size;
+                    return true;
+                }
+                return false;
+            });
+            if (chunks.size() != before) {
+                log.debug("Удалено блоков из горячего окна: {}", before - chunks.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(Stats hit) {
+        long timestamp = TimeBuckets.toEpochMilli(hit.getTimestamp());
+        if (timestamp < coveredFrom) {
+            return;
+        }
+        if (chunks.isEmpty() || chunks.getLast().isFull()) {
+            chunks.add(new HitChunk(CHUNK_SIZE));
+        }
+        chunks.getLast().add(timestamp, hit.getAppId(), hit.getUriId(), hit.getIpId());
+        size++;
+        while (size > maxHits && chunks.size() > 1) {
+            HitChunk oldest = chunks.getFirst();
+            for (HitChunk chunk : chunks.subList(0, chunks.size() - 1)) {
+                if (chunk.maxTimestamp < oldest.maxTimestamp) {
+                    oldest = chunk;
+                }
+            }
+            chunks.remove(oldest);
+            size -= oldest.size;
+            coveredFrom = Math.max(coveredFrom, oldest.maxTimestamp + 1);
+        }
+    }
+
+    private void aggregate(long start, long end, UriFilter uriFilter, StatsAggregator aggregator) {
+        for (HitChunk chunk : chunks) {
+            if (chunk.maxTimestamp < start || chunk.minTimestamp > end) {
+                continue;
+            }
+            if (uriFilter.matchesAll() && chunk.minTimestamp >= start && chunk.maxTimestamp <= end) {
+                aggregator.addAll(chunk.appIds, chunk.uriIds, chunk.ipIds, 0, chunk.size);
+                continue;
+            }
+            for (int i = 0; i < chunk.size; i++) {
+                long timestamp = chunk.timestamps[i];
+                if (timestamp >= start && timestamp <= end && uriFilter.matches(chunk.uriIds[i])) {
+                    aggregator.add(chunk.appIds[i], chunk.uriIds[i], chunk.ipIds[i]);
+                }
+            }
+        }
+    }
+
+    private void forEachHit(long start, long end, UriFilter uriFilter, HitConsumer consumer) {
+        for (HitChunk chunk : chunks) {
+            if (chunk.maxTimestamp < start || chunk.minTimestamp > end) {
+                continue;
+            }
+            for (int i = 0; i < chunk.size; i++) {
+                long timestamp = chunk.timestamps[i];
+                if (timestamp < start || timestamp > end || !uriFilter.matches(chunk.uriIds[i])) {
+                    continue;
+                }
+                consumer.accept(timestamp, chunk.appIds[i], chunk.uriIds[i], chunk.ipIds[i]);
+            }
+        }
+    }
+
+    private List<ViewStatsDto> merge(List<ViewStatsDto> stored, List<ViewStatsDto> recent, Integer limit) {
+        Map<List<String>, Long> hits = new HashMap<>();
+        for (ViewStatsDto dto : stored) {
+            hits.merge(List.of(dto.getApp(), dto.getUri()), dto.getHits(), Long::sum);
+        }
+        for (ViewStatsDto dto : recent) {
+            hits.merge(List.of(dto.getApp(), dto.getUri()), dto.getHits(), Long::sum);
+        }
+        List<ViewStatsDto> merged = hits.entrySet().stream()
+                .map(entry -> new ViewStatsDto(entry.getKey().get(0), entry.getKey().get(1), entry.getValue()))
+                .toList();
+        return TopK.select(merged, Comparator.comparing(ViewStatsDto::getHits), limit);
+    }
+
+    @FunctionalInterface
+    private interface HitConsumer {
+        void accept(long timestamp, int appId, int uriId, int ipId);
+    }
+}
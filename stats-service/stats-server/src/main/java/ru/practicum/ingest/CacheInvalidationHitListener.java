@@ -0,0 +1,21 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.cache.StatsIntervalCache;
+import ru.practicum.model.Stats;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationHitListener implements HitListener {
+    private final StatsIntervalCache statsCache;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        TransactionCallbacks.afterCommit(() -> statsCache.invalidate(hits));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsEventRepository;
+import ru.practicum.service.StatsDictionary;
+import ru.practicum.util.EventUris;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.events.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class EventCounterHitListener implements HitListener {
+    private final StatsEventRepository eventRepository;
+    private final StatsDictionary dictionary;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        Map<Integer, String> uris = dictionary.uris(hits.stream().map(Stats::getUriId).collect(Collectors.toSet()));
+        Map<Long, long[]> counters = new TreeMap<>();
+        Map<Long, Set<Integer>> ips = new TreeMap<>();
+        for (Stats hit : hits) {
+            Long eventId = EventUris.parseEventId(uris.get(hit.getUriId()));
+            if (eventId == null) {
+                continue;
+            }
+            counters.computeIfAbsent(eventId, k -> new long[2])[0]++;
+            ips.computeIfAbsent(eventId, k -> new TreeSet<>()).add(hit.getIpId());
+        }
+        if (counters.isEmpty()) {
+            return;
+        }
+        List<long[]> eventIps = new ArrayList<>();
+        ips.forEach((eventId, ipIds) -> ipIds.forEach(ipId -> eventIps.add(new long[]{eventId, ipId})));
+        for (long[] inserted : eventRepository.insertIps(eventIps)) {
+            counters.get(inserted[0])[1]++;
+        }
+        eventRepository.increment(counters);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.ingest;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.exception.OverloadException;
+import ru.practicum.metrics.StatsMetrics;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsHitIdRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.dedup.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class HitDeduplicator {
+    private final StatsHitIdRepository hitIdRepository;
+    private final HitIdFilter filter;
+    private final StatsMetrics metrics;
+    private final ConcurrentMap<String, CountDownLatch> inFlight = new ConcurrentHashMap<>();
+    private final int windowHours;
+    private final long rotationMillis;
+    private final long pendingTimeoutNanos;
+    private final long retryAfterSeconds;
+
+    private volatile long nextRotation;
+
+    public HitDeduplicator(StatsHitIdRepository hitIdRepository,
+                           StatsMetrics metrics,
+                           @Value("${stats.dedup.window-hours:24}") int windowHours,
+                           @Value("${stats.dedup.generations:4}") int generations,
+                           @Value("${stats.dedup.expected-ids:1000000}") long expectedIds,
+                           @Value("${stats.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${stats.dedup.pending-timeout-ms:5000}") long pendingTimeoutMs,
+                           @Value("${stats.ingest.shedding.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.hitIdRepository = hitIdRepository;
+        this.metrics = metrics;
+        this.windowHours = windowHours;
+        this.rotationMillis = TimeUnit.HOURS.toMillis(windowHours) / generations;
+        this.pendingTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(pendingTimeoutMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.filter = new HitIdFilter(generations, expectedIds, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        nextRotation = System.currentTimeMillis() + rotationMillis;
+        hitIdRepository.forEachSince(LocalDateTime.now().minusHours(windowHours), filter::add);
+    }
+
+    public List<EndpointHitDto> claim(List<EndpointHitDto> hits) {
+        rotateIfDue();
+        long deadline = System.nanoTime() + pendingTimeoutNanos;
+        while (true) {
+            CountDownLatch done = new CountDownLatch(1);
+            Set<String> claimed = new HashSet<>();
+            Set<CountDownLatch> holders = new HashSet<>();
+            for (EndpointHitDto hit : hits) {
+                String hitId = hit.getHitId();
+                if (hitId != null && !claimed.contains(hitId)) {
+                    CountDownLatch holder = inFlight.putIfAbsent(hitId, done);
+                    if (holder == null) {
+                        claimed.add(hitId);
+                    } else {
+                        holders.add(holder);
+                    }
+                }
+            }
+            if (holders.isEmpty()) {
+                return accept(hits, claimed, done);
+            }
+            unclaim(claimed, done);
+            awaitPending(holders, deadline);
+        }
+    }
+
+    public Set<String> record(List<EndpointHitDto> accepted) {
+        List<String> hitIds = accepted.stream()
+                .map(EndpointHitDto::getHitId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (hitIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> inserted = hitIdRepository.insertAll(hitIds, LocalDateTime.now());
+        if (inserted.size() == hitIds.size()) {
+            return Set.of();
+        }
+        Set<String> duplicates = new HashSet<>(hitIds);
+        duplicates.removeAll(inserted);
+        log.debug("Отброшено повторных посещений после записи идентификаторов: {}", duplicates.size());
+        metrics.recordDuplicates(duplicates.size());
+        return duplicates;
+    }
+
+    public void release(List<EndpointHitDto> accepted, boolean stored) {
+        Set<CountDownLatch> released = new HashSet<>();
+        for (EndpointHitDto hit : accepted) {
+            if (hit.getHitId() == null) {
+                continue;
+            }
+            if (stored) {
+                filter.add(hit.getHitId());
+            }
+            CountDownLatch done = inFlight.remove(hit.getHitId());
+            if (done != null) {
+                released.add(done);
+            }
+        }
+        released.forEach(CountDownLatch::countDown);
+    }
+
+    @Scheduled(fixedDelayString = "${stats.dedup.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = hitIdRepository.deleteBefore(LocalDateTime.now().minusHours(windowHours));
+        log.debug("Удалено устаревших идентификаторов посещений: {}", deleted);
+    }
+
+    private List<EndpointHitDto> accept(List<EndpointHitDto> hits, Set<String> claimed, CountDownLatch done) {
+        List<EndpointHitDto> accepted = new ArrayList<>(hits.size());
+        List<EndpointHitDto> suspects = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (EndpointHitDto hit : hits) {
+            if (hit.getHitId() == null) {
+                accepted.add(hit);
+            } else if (seen.add(hit.getHitId())) {
+                (filter.mightContain(hit.getHitId()) ? suspects : accepted).add(hit);
+            }
+        }
+        if (!suspects.isEmpty()) {
+            Set<String> existing;
+            try {
+                existing = hitIdRepository.findExisting(suspects.stream().map(EndpointHitDto::getHitId).toList());
+            } catch (RuntimeException e) {
+                unclaim(claimed, done);
+                throw e;
+            }
+            for (EndpointHitDto hit : suspects) {
+                if (existing.contains(hit.getHitId())) {
+                    inFlight.remove(hit.getHitId(), done);
+                } else {
+                    accepted.add(hit);
+                }
+            }
+        }
+        if (accepted.isEmpty()) {
+            done.countDown();
+        }
+        if (accepted.size() < hits.size()) {
+            log.debug("Отброшено повторных посещений: {}", hits.size() - accepted.size());
+            metrics.recordDuplicates(hits.size() - accepted.size());
+        }
+        return accepted;
+    }
+
+    private void awaitPending(Set<CountDownLatch> holders, long deadline) {
+        try {
+            for (CountDownLatch holder : holders) {
+                if (!holder.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new OverloadException("Посещение с тем же идентификатором ещё записывается",
+                            retryAfterSeconds);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OverloadException("Ожидание записи посещения прервано", retryAfterSeconds);
+        }
+    }
+
+    private void unclaim(Set<String> claimed, CountDownLatch done) {
+        claimed.forEach(hitId -> inFlight.remove(hitId, done));
+        done.countDown();
+    }
+
+    private void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (now < nextRotation) {
+            return;
+        }
+        synchronized (filter) {
+            if (now >= nextRotation) {
+                filter.rotate();
+                nextRotation = now + rotationMillis;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.ingest;
+
+import ru.practicum.sketch.HyperLogLog;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class HitIdFilter {
+    private final AtomicLongArray[] generations;
+    private final long mask;
+    private final int hashes;
+
+    private volatile int current;
+
+    public HitIdFilter(int generations, long expectedIds, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long perGeneration = Math.max(1, expectedIds / generations);
+        long bits = (long) Math.ceil(-perGeneration * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long size = bits <= Long.SIZE ? Long.SIZE : Long.highestOneBit(bits - 1) << 1;
+        this.mask = size - 1;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / perGeneration * ln2));
+        this.generations = new AtomicLongArray[generations];
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = new AtomicLongArray((int) (size / Long.SIZE));
+        }
+    }
+
+    public boolean mightContain(String hitId) {
+        long h1 = HyperLogLog.hash(hitId);
+        long h2 = HyperLogLog.hash(h1) | 1;
+        for (AtomicLongArray generation : generations) {
+            if (contains(generation, h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(String hitId) {
+        long h1 = HyperLogLog.hash(hitId);
+        long h2 = HyperLogLog.hash(h1) | 1;
+        AtomicLongArray generation = generations[current];
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            long value;
+            do {
+                value = generation.get(word);
+            } while ((value & flag) == 0 && !generation.compareAndSet(word, value, value | flag));
+        }
+    }
+
+    public synchronized void rotate() {
+        int next = (current + 1) % generations.length;
+        AtomicLongArray oldest = generations[next];
+        for (int i = 0; i < oldest.length(); i++) {
+            oldest.set(i, 0);
+        }
+        current = next;
+    }
+
+    private boolean contains(AtomicLongArray generation, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((generation.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.service.HitWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.ingest.async.enabled", havingValue = "true")
+public class HitIngestQueue implements SmartLifecycle {
+    private final HitWriter hitWriter;
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int capacity;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final long shutdownTimeoutMs;
+    private final Counter dropped;
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public HitIngestQueue(HitWriter hitWriter,
+                          MeterRegistry meterRegistry,
+                          @Value("${stats.ingest.async.queue-capacity:100000}") int queueCapacity,
+                          @Value("${stats.ingest.async.flush-size:1000}") int flushSize,
+                          @Value("${stats.ingest.async.flush-interval-ms:200}") long flushIntervalMs,
+                          @Value("${stats.ingest.async.max-retries:5}") int maxRetries,
+                          @Value("${stats.ingest.async.retry-backoff-ms:100}") long retryBackoffMs,
+                          @Value("${stats.ingest.async.max-retry-backoff-ms:5000}") long maxRetryBackoffMs,
+                          @Value("${stats.ingest.async.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.hitWriter = hitWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.capacity = queueCapacity;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.dropped = Counter.builder("stats.ingest.dropped").register(meterRegistry);
+        Gauge.builder("stats.ingest.queue.depth", this, HitIngestQueue::size).register(meterRegistry);
+    }
+
+    public void offer(List<EndpointHitDto> hits) {
+        List<EndpointHitDto> overflow = new ArrayList<>();
+        runningLock.readLock().lock();
+        try {
+            for (EndpointHitDto hit : hits) {
+                if (!running || !queue.offer(hit)) {
+                    overflow.add(hit);
+                }
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        if (!overflow.isEmpty()) {
+            log.warn("Очередь посещений недоступна или заполнена, синхронная запись: {} шт.", overflow.size());
+            hitWriter.write(overflow);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "stats-hit-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            int lost = queue.size();
+            queue.clear();
+            dropped.increment(lost);
+            log.warn("Запись очереди посещений не завершилась за {} мс, потеряно посещений в очереди: {}",
+                    shutdownTimeoutMs, lost);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<EndpointHitDto> batch = new ArrayList<>(flushSize);
+        long deadline = 0;
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    EndpointHitDto first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (!running) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    deadline = System.currentTimeMillis() + flushIntervalMs;
+                }
+                queue.drainTo(batch, flushSize - batch.size());
+                long remaining = deadline - System.currentTimeMillis();
+                if (batch.size() < flushSize && remaining > 0 && running) {
+                    EndpointHitDto next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                    continue;
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                running = false;
+                dropped.increment(batch.size());
+                return;
+            }
+        }
+    }
+
+    private void flush(List<EndpointHitDto> batch) throws InterruptedException {
+        long backoff = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                hitWriter.write(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxRetries) {
+                    dropped.increment(batch.size());
+                    log.error("Ошибка при групповой записи посещений ({} шт.), пакет отброшен после {} попыток: {}",
+                            batch.size(), attempt + 1, e.getMessage());
+                    return;
+                }
+                log.warn("Ошибка при групповой записи посещений ({} шт.), повтор через {} мс: {}",
+                        batch.size(), backoff, e.getMessage());
+            }
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, maxRetryBackoffMs);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.ingest;
+
+import ru.practicum.model.Stats;
+
+import java.util.List;
+
+public interface HitListener {
+
+    void onHits(List<Stats> hits);
+
+    default void onBackfill(List<Stats> hits) {
+        onHits(hits);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.hotwindow.HotWindowStore;
+import ru.practicum.model.Stats;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.hot-window.enabled", havingValue = "true", matchIfMissing = true)
+public class HotWindowHitListener implements HitListener {
+    private final HotWindowStore hotWindowStore;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        TransactionCallbacks.afterCommit(() -> hotWindowStore.add(hits));
+    }
+}
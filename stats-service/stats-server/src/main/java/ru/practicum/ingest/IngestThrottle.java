@@ -0,0 +1,120 @@
+package ru.practicum.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.exception.OverloadException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.ingest.shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class IngestThrottle {
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final Semaphore writePermits;
+    private final int writePermitCount;
+    private final long acquireTimeoutMs;
+    private final double queueHighWatermark;
+    private final long latencyHighNanos;
+    private final long latencyLowNanos;
+    private final long retryAfterSeconds;
+    private final Counter shedQueue;
+    private final Counter shedConcurrency;
+    private final Counter shedLatency;
+
+    private volatile double latencyNanos;
+    private volatile long overloadedUntil;
+
+    public IngestThrottle(MeterRegistry meterRegistry,
+                          @Value("${stats.ingest.shedding.max-concurrent-writes:4}") int maxConcurrentWrites,
+                          @Value("${stats.ingest.shedding.acquire-timeout-ms:50}") long acquireTimeoutMs,
+                          @Value("${stats.ingest.shedding.queue-high-watermark:0.8}") double queueHighWatermark,
+                          @Value("${stats.ingest.shedding.latency-high-ms:500}") long latencyHighMs,
+                          @Value("${stats.ingest.shedding.latency-low-ms:100}") long latencyLowMs,
+                          @Value("${stats.ingest.shedding.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (latencyLowMs > latencyHighMs) {
+            throw new IllegalArgumentException("Нижний порог задержки больше верхнего: " + latencyLowMs + " > "
+                    + latencyHighMs);
+        }
+        this.writePermits = new Semaphore(maxConcurrentWrites);
+        this.writePermitCount = maxConcurrentWrites;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.queueHighWatermark = queueHighWatermark;
+        this.latencyHighNanos = TimeUnit.MILLISECONDS.toNanos(latencyHighMs);
+        this.latencyLowNanos = TimeUnit.MILLISECONDS.toNanos(latencyLowMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.shedQueue = Counter.builder("stats.ingest.shed").tag("cause", "queue").register(meterRegistry);
+        this.shedConcurrency = Counter.builder("stats.ingest.shed").tag("cause", "concurrency")
+                .register(meterRegistry);
+        this.shedLatency = Counter.builder("stats.ingest.shed").tag("cause", "latency").register(meterRegistry);
+        Gauge.builder("stats.ingest.latency.smoothed", this, throttle -> throttle.latencyNanos / 1_000_000.0)
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("stats.ingest.writes.active", this, IngestThrottle::activeWrites).register(meterRegistry);
+    }
+
+    public void checkQueue(int depth, int capacity, int incoming) {
+        checkLatency(incoming);
+        if (depth + incoming > capacity * queueHighWatermark) {
+            shedQueue.increment(incoming);
+            throw overloaded("Очередь посещений заполнена: " + depth + " из " + capacity);
+        }
+    }
+
+    public void write(int incoming, Runnable writer) {
+        checkLatency(incoming);
+        boolean acquired;
+        try {
+            acquired = writePermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shedConcurrency.increment(incoming);
+            throw overloaded("Превышено число одновременных записей посещений: " + writePermitCount);
+        }
+        try {
+            writer.run();
+        } finally {
+            writePermits.release();
+        }
+    }
+
+    public void recordLatency(long nanos) {
+        double smoothed = latencyNanos == 0 ? nanos : latencyNanos + LATENCY_SMOOTHING * (nanos - latencyNanos);
+        latencyNanos = smoothed;
+        if (smoothed > latencyHighNanos) {
+            if (overloadedUntil == 0) {
+                log.warn("Задержка записи посещений {} мс выше порога, приём приостановлен",
+                        TimeUnit.NANOSECONDS.toMillis((long) smoothed));
+            }
+            overloadedUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retryAfterSeconds);
+        } else if (smoothed < latencyLowNanos && overloadedUntil != 0) {
+            overloadedUntil = 0;
+            log.info("Задержка записи посещений вернулась к норме, приём возобновлён");
+        }
+    }
+
+    private void checkLatency(int incoming) {
+        long until = overloadedUntil;
+        if (until != 0 && System.currentTimeMillis() < until) {
+            shedLatency.increment(incoming);
+            throw overloaded("Задержка записи посещений выше допустимой");
+        }
+    }
+
+    private OverloadException overloaded(String message) {
+        return new OverloadException(message, retryAfterSeconds);
+    }
+
+    private int activeWrites() {
+        return writePermitCount - writePermits.availablePermits();
+    }
+}
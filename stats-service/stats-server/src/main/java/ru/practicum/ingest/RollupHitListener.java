@@ -0,0 +1,23 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsRollupRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.rollup.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class RollupHitListener implements HitListener {
+    private final StatsRollupRepository rollupRepository;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        rollupRepository.increment(hits);
+    }
+}
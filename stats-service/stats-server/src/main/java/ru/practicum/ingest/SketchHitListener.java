@@ -0,0 +1,23 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.service.UniqueSketchService;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.sketch.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class SketchHitListener implements HitListener {
+    private final UniqueSketchService sketchService;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        TransactionCallbacks.afterCommit(() -> sketchService.add(hits));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Stats;
+import ru.practicum.trending.TrendingTracker;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.trending.enabled", havingValue = "true", matchIfMissing = true)
+public class TrendingHitListener implements HitListener {
+    private final TrendingTracker trendingTracker;
+
+    @Override
+    public void onHits(List<Stats> hits) {
+        TransactionCallbacks.afterCommit(() -> trendingTracker.add(hits));
+    }
+
+    @Override
+    public void onBackfill(List<Stats> hits) {
+    }
+}
@@ -4,22 +4,14 @@ import ru.practicum.EndpointHitDto;
 import ru.practicum.model.Stats;
 
 public class StatsMapper {
-    public static Stats fromEndpointHitDtoToEndpointHit(EndpointHitDto endpointHitDto) {
+    public static Stats fromEndpointHitDtoToEndpointHit(EndpointHitDto endpointHitDto,
+                                                        Integer appId, Integer uriId, Integer ipId) {
         return Stats.builder()
                 .id(null)
-                .uri(endpointHitDto.getUri())
-                .ip(endpointHitDto.getIp())
-                .app(endpointHitDto.getApp())
+                .appId(appId)
+                .uriId(uriId)
+                .ipId(ipId)
                 .timestamp(endpointHitDto.getTimestamp())
                 .build();
     }
-
-    public static EndpointHitDto fromEndpointHitToEndpointHitDto(Stats stats) {
-        return EndpointHitDto.builder()
-                .uri(stats.getUri())
-                .ip(stats.getIp())
-                .app(stats.getApp())
-                .timestamp(stats.getTimestamp())
-                .build();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package ru.practicum.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+public class StatsMetrics {
+    private final MeterRegistry meterRegistry;
+    private final Counter ingestedHits;
+    private final Counter duplicateHits;
+    private final DistributionSummary batchSize;
+    private final Timer insertTimer;
+
+    public StatsMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.ingestedHits = Counter.builder("stats.ingest.hits").register(meterRegistry);
+        this.duplicateHits = Counter.builder("stats.ingest.duplicates").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("stats.ingest.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.insertTimer = Timer.builder("stats.ingest.insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordBatch(int size) {
+        batchSize.record(size);
+        ingestedHits.increment(size);
+    }
+
+    public void recordDuplicates(int count) {
+        duplicateHits.increment(count);
+    }
+
+    public Timer insertTimer() {
+        return insertTimer;
+    }
+
+    public Timer queryTimer(String endpoint, LocalDateTime start, LocalDateTime end, boolean filtered,
+                            String unique) {
+        return Timer.builder("stats.query")
+                .tag("endpoint", endpoint)
+                .tag("unique", unique)
+                .tag("uris", String.valueOf(filtered))
+                .tag("window", window(Duration.between(start, end)))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private String window(Duration length) {
+        if (length.compareTo(Duration.ofHours(1)) <= 0) {
+            return "1h";
+        }
+        if (length.compareTo(Duration.ofDays(1)) <= 0) {
+            return "1d";
+        }
+        if (length.compareTo(Duration.ofDays(7)) <= 0) {
+            return "7d";
+        }
+        if (length.compareTo(Duration.ofDays(31)) <= 0) {
+            return "31d";
+        }
+        return "long";
+    }
+}
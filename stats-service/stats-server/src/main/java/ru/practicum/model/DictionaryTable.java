@@ -0,0 +1,15 @@
+package ru.practicum.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum DictionaryTable {
+    APP("stats_app", "name"),
+    URI("stats_uri", "uri"),
+    IP("stats_ip", "address");
+
+    private final String table;
+    private final String column;
+}
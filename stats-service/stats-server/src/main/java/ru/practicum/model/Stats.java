@@ -1,7 +1,6 @@
 package ru.practicum.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
@@ -21,19 +20,19 @@ public class Stats {
     @Column(name = "id")
     private Long id;
 
-    @NotBlank
-    @Column(name = "app", nullable = false, length = 64)
-    private String app;
+    @NotNull
+    @Column(name = "app_id", nullable = false)
+    private Integer appId;
 
-    @NotBlank
-    @Column(name = "uri", nullable = false, length = 256)
-    private String uri;
+    @NotNull
+    @Column(name = "uri_id", nullable = false)
+    private Integer uriId;
 
-    @NotBlank
-    @Column(name = "ip", nullable = false, length = 64)
-    private String ip;
+    @NotNull
+    @Column(name = "ip_id", nullable = false)
+    private Integer ipId;
 
     @NotNull
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package ru.practicum.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class StatsQuery {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final List<Integer> uriIds;
+    private final boolean unique;
+    private final boolean endExclusive;
+    private final Integer limit;
+}
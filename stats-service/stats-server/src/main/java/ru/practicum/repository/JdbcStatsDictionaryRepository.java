@@ -0,0 +1,114 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.DictionaryTable;
+import ru.practicum.util.UriPatterns;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class JdbcStatsDictionaryRepository implements StatsDictionaryRepository {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    @Override
+    public Map<String, Integer> findIds(DictionaryTable table, Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (List<String> chunk : chunks(names)) {
+            namedJdbcTemplate.query(selectIds(table), new MapSqlParameterSource("values", chunk),
+                    (RowCallbackHandler) rs -> ids.put(rs.getString(2), rs.getInt(1)));
+        }
+        return ids;
+    }
+
+    @Override
+    public Map<ByteBuffer, Integer> findIpIds(Collection<ByteBuffer> addresses) {
+        Map<ByteBuffer, Integer> ids = new HashMap<>();
+        for (List<ByteBuffer> chunk : chunks(addresses)) {
+            List<byte[]> values = chunk.stream().map(ByteBuffer::array).toList();
+            namedJdbcTemplate.query(selectIds(DictionaryTable.IP), new MapSqlParameterSource("values", values),
+                    (RowCallbackHandler) rs -> ids.put(ByteBuffer.wrap(rs.getBytes(2)), rs.getInt(1)));
+        }
+        return ids;
+    }
+
+    @Override
+    public Map<Integer, String> findNames(DictionaryTable table, Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            namedJdbcTemplate.query("SELECT id, " + table.getColumn() + " FROM " + table.getTable() +
+                            " WHERE id IN (:ids)", new MapSqlParameterSource("ids", chunk),
+                    (RowCallbackHandler) rs -> names.put(rs.getInt(1), rs.getString(2)));
+        }
+        return names;
+    }
+
+    @Override
+    public Map<String, Integer> findUrisByPrefix(String prefix, int limit) {
+        Map<String, Integer> ids = new HashMap<>();
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        namedJdbcTemplate.query("SELECT id, uri FROM stats_uri WHERE uri LIKE :pattern ESCAPE '\\' LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("pattern", escaped + "%")
+                        .addValue("limit", limit),
+                (RowCallbackHandler) rs -> ids.put(rs.getString(2), rs.getInt(1)));
+        return ids;
+    }
+
+    @Override
+    public List<Integer> findUriIdsByPattern(String pattern) {
+        return namedJdbcTemplate.queryForList("SELECT id FROM stats_uri WHERE uri LIKE :pattern ESCAPE '\\'",
+                new MapSqlParameterSource("pattern", UriPatterns.toLike(pattern)), Integer.class);
+    }
+
+    @Override
+    public void insertMissing(DictionaryTable table, List<?> values) {
+        String sql = dialect.isPostgres()
+                ? "INSERT INTO " + table.getTable() + " (" + table.getColumn() + ") VALUES (?) ON CONFLICT DO NOTHING"
+                : "MERGE INTO " + table.getTable() + " (" + table.getColumn() + ") KEY (" + table.getColumn() + ") " +
+                "VALUES (?)";
+        jdbcTemplate.batchUpdate(sql, values, CHUNK_SIZE, (ps, value) -> {
+            if (value instanceof ByteBuffer address) {
+                ps.setBytes(1, address.array());
+            } else {
+                ps.setString(1, (String) value);
+            }
+        });
+    }
+
+    private String selectIds(DictionaryTable table) {
+        return "SELECT id, " + table.getColumn() + " FROM " + table.getTable() +
+                " WHERE " + table.getColumn() + " IN (:values)";
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(values.size(), CHUNK_SIZE));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
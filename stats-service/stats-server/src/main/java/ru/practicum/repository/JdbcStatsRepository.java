@@ -0,0 +1,173 @@
+package ru.practicum.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.util.TimeBuckets;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class JdbcStatsRepository implements StatsRepository {
+    private static final String INSERT_SQL = "INSERT INTO stats (app_id, uri_id, ip_id, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Value("${stats.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${stats.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    @Value("${stats.compaction.enabled:false}")
+    private boolean compactionEnabled;
+
+    @Value("${stats.query.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate cursorTemplate;
+    private NamedParameterJdbcTemplate namedCursorTemplate;
+
+    @PostConstruct
+    public void init() {
+        cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(fetchSize);
+        namedCursorTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    @Override
+    public void insertAll(List<Stats> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, hits, batchSize, (ps, hit) -> {
+            ps.setInt(1, hit.getAppId());
+            ps.setInt(2, hit.getUriId());
+            ps.setInt(3, hit.getIpId());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+
+    @Override
+    public List<ViewStatsDto> findStats(StatsQuery query) {
+        StatsQueryBuilder builder = new StatsQueryBuilder(query, rollupEnabled, compactionEnabled);
+        return namedJdbcTemplate.query(builder.build(), builder.getParams(), (rs, rowNum) ->
+                new ViewStatsDto(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStats(StatsQuery query, Consumer<ViewStatsDto> consumer) {
+        StatsQueryBuilder builder = new StatsQueryBuilder(query, rollupEnabled, compactionEnabled);
+        namedCursorTemplate.query(builder.build(), builder.getParams(), (RowCallbackHandler) rs ->
+                consumer.accept(new ViewStatsDto(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"))));
+    }
+
+    @Override
+    public List<TimeSeriesStatsDto> findTimeSeries(ChronoUnit unit, StatsQuery query) {
+        String bucket = truncate(unit, "timestamp");
+        String sql = "SELECT r.bucket AS bucket, a.name AS app, u.uri AS uri, r.hits AS hits, " +
+                "r.unique_hits AS unique_hits FROM (" +
+                "SELECT " + bucket + " AS bucket, app_id, uri_id, " + RawHits.count(compactionEnabled) + " AS hits, " +
+                "COUNT(DISTINCT ip_id) AS unique_hits FROM " + RawHits.source(compactionEnabled) + " " +
+                "WHERE timestamp >= :from AND timestamp " + (query.isEndExclusive() ? "<" : "<=") + " :to" +
+                uriFilter(query.getUriIds()) + " GROUP BY " + bucket + ", app_id, uri_id) r " +
+                "JOIN stats_app a ON a.id = r.app_id " +
+                "JOIN stats_uri u ON u.id = r.uri_id " +
+                "ORDER BY r.bucket, r.hits DESC";
+        return namedJdbcTemplate.query(sql, rangeParams(query.getStart(), query.getEnd(), query.getUriIds()),
+                (rs, rowNum) -> new TimeSeriesStatsDto(rs.getTimestamp("bucket").toLocalDateTime(),
+                        rs.getString("app"), rs.getString("uri"), rs.getLong("hits"), rs.getLong("unique_hits")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachHit(LocalDateTime from, Consumer<Stats> consumer) {
+        String hits = compactionEnabled ? "hits" : "1 AS hits";
+        cursorTemplate.query("SELECT app_id, uri_id, ip_id, timestamp, " + hits + " FROM " +
+                        RawHits.source(compactionEnabled) + " WHERE timestamp >= ?",
+                (RowCallbackHandler) rs -> {
+                    Stats hit = Stats.builder()
+                            .appId(rs.getInt("app_id"))
+                            .uriId(rs.getInt("uri_id"))
+                            .ipId(rs.getInt("ip_id"))
+                            .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+                            .build();
+                    for (long i = rs.getLong("hits"); i > 0; i--) {
+                        consumer.accept(hit);
+                    }
+                },
+                Timestamp.valueOf(from));
+    }
+
+    @Override
+    public void forEachDistinctIp(LocalDateTime from, LocalDateTime to, boolean inclusive, List<Integer> uriIds,
+                                  IpConsumer consumer) {
+        String sql = "SELECT DISTINCT app_id, uri_id, ip_id FROM " + RawHits.source(compactionEnabled) + " " +
+                "WHERE timestamp >= :from AND timestamp " + (inclusive ? "<=" : "<") + " :to" + uriFilter(uriIds);
+        namedJdbcTemplate.query(sql, rangeParams(from, to, uriIds), (RowCallbackHandler) rs ->
+                consumer.accept(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getInt("ip_id")));
+    }
+
+    @Override
+    public void forEachBucketCount(ChronoUnit unit, LocalDateTime from, LocalDateTime to, boolean inclusive,
+                                   List<Integer> uriIds, BucketCountConsumer consumer) {
+        ChronoUnit rollupUnit = unit == ChronoUnit.MINUTES ? ChronoUnit.MINUTES : ChronoUnit.HOURS;
+        String sql;
+        if (rollupEnabled && !inclusive && TimeBuckets.floor(from, rollupUnit).equals(from)
+                && TimeBuckets.floor(to, rollupUnit).equals(to)) {
+            String bucket = truncate(unit, "bucket");
+            sql = "SELECT " + bucket + " AS bucket, app_id, uri_id, SUM(hits) AS hits " +
+                    "FROM " + (rollupUnit == ChronoUnit.MINUTES ? "stats_minute" : "stats_hour") + " " +
+                    "WHERE bucket >= :from AND bucket < :to" + uriFilter(uriIds) + " " +
+                    "GROUP BY " + bucket + ", app_id, uri_id";
+        } else {
+            String bucket = truncate(unit, "timestamp");
+            sql = "SELECT " + bucket + " AS bucket, app_id, uri_id, " + RawHits.count(compactionEnabled) +
+                    " AS hits FROM " + RawHits.source(compactionEnabled) + " " +
+                    "WHERE timestamp >= :from AND timestamp " + (inclusive ? "<=" : "<") + " :to" + uriFilter(uriIds) +
+                    " GROUP BY " + bucket + ", app_id, uri_id";
+        }
+        namedJdbcTemplate.query(sql, rangeParams(from, to, uriIds), (RowCallbackHandler) rs ->
+                consumer.accept(rs.getTimestamp("bucket").toLocalDateTime(), rs.getInt("app_id"),
+                        rs.getInt("uri_id"), rs.getLong("hits")));
+    }
+
+    private MapSqlParameterSource rangeParams(LocalDateTime from, LocalDateTime to, List<Integer> uriIds) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("uriIds", UriIdFilter.param(uriIds));
+    }
+
+    private String uriFilter(List<Integer> uriIds) {
+        return UriIdFilter.sql(uriIds);
+    }
+
+    private String truncate(ChronoUnit unit, String column) {
+        String field = switch (unit) {
+            case MINUTES -> "minute";
+            case HOURS -> "hour";
+            case DAYS -> "day";
+            default -> throw new IllegalArgumentException("Неподдерживаемый интервал: " + unit);
+        };
+        return "DATE_TRUNC('" + field + "', " + column + ")";
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.repository;
+
+final class RawHits {
+    private static final String WITH_COMPACTED = "(SELECT app_id, uri_id, ip_id, timestamp, 1 AS hits FROM stats " +
+            "UNION ALL SELECT app_id, uri_id, ip_id, bucket AS timestamp, hits FROM stats_compacted) h";
+
+    private RawHits() {
+    }
+
+    static String source(boolean compacted) {
+        return compacted ? WITH_COMPACTED : "stats";
+    }
+
+    static String count(boolean compacted) {
+        return compacted ? "SUM(hits)" : "COUNT(*)";
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Stats;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class StatsBackfillRepository {
+    private static final String COPY_SQL = "COPY stats (app_id, uri_id, ip_id, timestamp) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_PREFIX = "INSERT INTO stats (app_id, uri_id, ip_id, timestamp) VALUES ";
+    private static final int ROWS_PER_INSERT = 250;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public void insertAll(List<Stats> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        if (dialect.isPostgres()) {
+            copy(hits);
+        } else {
+            for (int from = 0; from < hits.size(); from += ROWS_PER_INSERT) {
+                insertRows(hits.subList(from, Math.min(from + ROWS_PER_INSERT, hits.size())));
+            }
+        }
+    }
+
+    private void copy(List<Stats> hits) {
+        StringBuilder csv = new StringBuilder(hits.size() * 48);
+        for (Stats hit : hits) {
+            csv.append(hit.getAppId()).append(',')
+                    .append(hit.getUriId()).append(',')
+                    .append(hit.getIpId()).append(',')
+                    .append(Timestamp.valueOf(hit.getTimestamp())).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void insertRows(List<Stats> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        jdbcTemplate.update(sql.toString(), (PreparedStatement ps) -> {
+            int index = 1;
+            for (Stats hit : rows) {
+                ps.setInt(index++, hit.getAppId());
+                ps.setInt(index++, hit.getUriId());
+                ps.setInt(index++, hit.getIpId());
+                ps.setTimestamp(index++, Timestamp.valueOf(hit.getTimestamp()));
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Stats;
+import ru.practicum.util.TimeBuckets;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class StatsCompactionRepository {
+    private static final String POSTGRES_UPSERT = "INSERT INTO stats_compacted (app_id, uri_id, ip_id, bucket, hits) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (uri_id, bucket, app_id, ip_id) DO UPDATE SET hits = stats_compacted.hits + EXCLUDED.hits";
+    private static final String MERGE_UPSERT = "MERGE INTO stats_compacted t " +
+            "USING (VALUES (CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS TIMESTAMP), " +
+            "CAST(? AS BIGINT))) s(app_id, uri_id, ip_id, bucket, hits) " +
+            "ON t.app_id = s.app_id AND t.uri_id = s.uri_id AND t.ip_id = s.ip_id AND t.bucket = s.bucket " +
+            "WHEN MATCHED THEN UPDATE SET hits = t.hits + s.hits " +
+            "WHEN NOT MATCHED THEN INSERT (app_id, uri_id, ip_id, bucket, hits) " +
+            "VALUES (s.app_id, s.uri_id, s.ip_id, s.bucket, s.hits)";
+    private static final Comparator<CompactedKey> KEY_ORDER = Comparator.comparing(CompactedKey::uriId)
+            .thenComparing(CompactedKey::bucket)
+            .thenComparing(CompactedKey::appId)
+            .thenComparing(CompactedKey::ipId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public int compact(LocalDateTime before, ChronoUnit unit, int chunkSize) {
+        List<Stats> hits = jdbcTemplate.query(
+                "SELECT id, app_id, uri_id, ip_id, timestamp FROM stats WHERE timestamp < ? LIMIT ?",
+                (rs, rowNum) -> Stats.builder()
+                        .id(rs.getLong("id"))
+                        .appId(rs.getInt("app_id"))
+                        .uriId(rs.getInt("uri_id"))
+                        .ipId(rs.getInt("ip_id"))
+                        .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+                        .build(),
+                Timestamp.valueOf(before), chunkSize);
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        upsert(aggregate(hits, unit));
+        namedJdbcTemplate.update("DELETE FROM stats WHERE timestamp < :before AND id IN (:ids)",
+                new MapSqlParameterSource()
+                        .addValue("before", Timestamp.valueOf(before))
+                        .addValue("ids", hits.stream().map(Stats::getId).toList()));
+        return hits.size();
+    }
+
+    private Map<CompactedKey, Long> aggregate(List<Stats> hits, ChronoUnit unit) {
+        Map<CompactedKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (Stats hit : hits) {
+            CompactedKey key = new CompactedKey(hit.getAppId(), hit.getUriId(), hit.getIpId(),
+                    TimeBuckets.floor(hit.getTimestamp(), unit));
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private void upsert(Map<CompactedKey, Long> counts) {
+        jdbcTemplate.batchUpdate(dialect.isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT, counts.entrySet(),
+                counts.size(), (ps, entry) -> {
+                    ps.setInt(1, entry.getKey().appId());
+                    ps.setInt(2, entry.getKey().uriId());
+                    ps.setInt(3, entry.getKey().ipId());
+                    ps.setTimestamp(4, Timestamp.valueOf(entry.getKey().bucket()));
+                    ps.setLong(5, entry.getValue());
+                });
+    }
+
+    private record CompactedKey(int appId, int uriId, int ipId, LocalDateTime bucket) {
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.repository;
+
+import ru.practicum.model.DictionaryTable;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface StatsDictionaryRepository {
+
+    Map<String, Integer> findIds(DictionaryTable table, Collection<String> names);
+
+    Map<ByteBuffer, Integer> findIpIds(Collection<ByteBuffer> addresses);
+
+    Map<Integer, String> findNames(DictionaryTable table, Collection<Integer> ids);
+
+    Map<String, Integer> findUrisByPrefix(String prefix, int limit);
+
+    List<Integer> findUriIdsByPattern(String pattern);
+
+    void insertMissing(DictionaryTable table, List<?> values);
+}
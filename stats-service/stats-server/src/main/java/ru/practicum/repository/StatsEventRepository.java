@@ -0,0 +1,79 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.events.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class StatsEventRepository {
+    private static final String POSTGRES_INSERT_IP = "INSERT INTO stats_event_ip (event_id, ip_id) SELECT ?, ? " +
+            "ON CONFLICT DO NOTHING";
+    private static final String H2_INSERT_IP = "INSERT INTO stats_event_ip (event_id, ip_id) SELECT ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM stats_event_ip WHERE event_id = ? AND ip_id = ?)";
+    private static final String POSTGRES_UPSERT = "INSERT INTO stats_event (event_id, hits, unique_hits) " +
+            "VALUES (?, ?, ?) ON CONFLICT (event_id) DO UPDATE SET hits = stats_event.hits + EXCLUDED.hits, " +
+            "unique_hits = stats_event.unique_hits + EXCLUDED.unique_hits";
+    private static final String MERGE_UPSERT = "MERGE INTO stats_event t " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) s(event_id, hits, unique_hits) " +
+            "ON t.event_id = s.event_id " +
+            "WHEN MATCHED THEN UPDATE SET hits = t.hits + s.hits, unique_hits = t.unique_hits + s.unique_hits " +
+            "WHEN NOT MATCHED THEN INSERT (event_id, hits, unique_hits) VALUES (s.event_id, s.hits, s.unique_hits)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public List<long[]> insertIps(List<long[]> eventIps) {
+        boolean postgres = dialect.isPostgres();
+        int[][] counts = jdbcTemplate.batchUpdate(postgres ? POSTGRES_INSERT_IP : H2_INSERT_IP, eventIps,
+                eventIps.size(), (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setInt(2, (int) pair[1]);
+                    if (!postgres) {
+                        ps.setLong(3, pair[0]);
+                        ps.setInt(4, (int) pair[1]);
+                    }
+                });
+        List<long[]> inserted = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count > 0) {
+                    inserted.add(eventIps.get(i));
+                }
+                i++;
+            }
+        }
+        return inserted;
+    }
+
+    public void increment(Map<Long, long[]> counters) {
+        jdbcTemplate.batchUpdate(dialect.isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT, counters.entrySet(),
+                counters.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getKey());
+                    ps.setLong(2, entry.getValue()[0]);
+                    ps.setLong(3, entry.getValue()[1]);
+                });
+    }
+
+    public Map<Long, Long> findViews(Collection<Long> eventIds, boolean unique) {
+        Map<Long, Long> views = new HashMap<>();
+        namedJdbcTemplate.query("SELECT event_id, " + (unique ? "unique_hits" : "hits") + " AS views " +
+                        "FROM stats_event WHERE event_id IN (:ids)", new MapSqlParameterSource("ids", eventIds),
+                (RowCallbackHandler) rs -> views.put(rs.getLong("event_id"), rs.getLong("views")));
+        return views;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class StatsHitIdRepository {
+    private static final String POSTGRES_INSERT = "INSERT INTO stats_hit_id (hit_id, received) " +
+            "SELECT hit_id, CAST(:received AS TIMESTAMP) FROM unnest(:ids) AS s(hit_id) " +
+            "ON CONFLICT DO NOTHING RETURNING hit_id";
+    private static final String MERGE_INSERT = "SELECT hit_id FROM FINAL TABLE (MERGE INTO stats_hit_id t " +
+            "USING (SELECT DISTINCT hit_id, CAST(:received AS TIMESTAMP) AS received " +
+            "FROM UNNEST(:ids) AS s(hit_id)) s " +
+            "ON t.hit_id = s.hit_id " +
+            "WHEN NOT MATCHED THEN INSERT (hit_id, received) VALUES (s.hit_id, s.received))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public Set<String> findExisting(Collection<String> hitIds) {
+        return new HashSet<>(namedJdbcTemplate.queryForList("SELECT hit_id FROM stats_hit_id WHERE hit_id IN (:ids)",
+                Map.of("ids", hitIds), String.class));
+    }
+
+    public Set<String> insertAll(List<String> hitIds, LocalDateTime received) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", new SqlArrayValue("varchar", hitIds.toArray()))
+                .addValue("received", Timestamp.valueOf(received));
+        return new HashSet<>(namedJdbcTemplate.queryForList(dialect.isPostgres() ? POSTGRES_INSERT : MERGE_INSERT,
+                params, String.class));
+    }
+
+    public void forEachSince(LocalDateTime from, Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT hit_id FROM stats_hit_id WHERE received >= ?",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getString("hit_id")), Timestamp.valueOf(from));
+    }
+
+    public int deleteBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM stats_hit_id WHERE received < ?", Timestamp.valueOf(before));
+    }
+}
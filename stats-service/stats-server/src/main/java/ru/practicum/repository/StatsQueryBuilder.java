@@ -0,0 +1,92 @@
+package ru.practicum.repository;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.util.TimeBuckets;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatsQueryBuilder {
+    private final StatsQuery query;
+    private final boolean useRollups;
+    private final boolean compacted;
+    private final List<String> parts = new ArrayList<>();
+
+    @Getter
+    private final MapSqlParameterSource params = new MapSqlParameterSource();
+
+    public StatsQueryBuilder(StatsQuery query, boolean useRollups, boolean compacted) {
+        this.query = query;
+        this.useRollups = useRollups && !query.isUnique();
+        this.compacted = compacted;
+        params.addValue("uriIds", UriIdFilter.param(query.getUriIds()));
+    }
+
+    public String build() {
+        if (useRollups) {
+            addRollupParts();
+        } else {
+            addRawPart(query.getStart(), query.getEnd(), !query.isEndExclusive());
+        }
+        String source = parts.size() == 1 ? parts.getFirst()
+                : "SELECT app_id, uri_id, SUM(hits) AS hits FROM (" + String.join(" UNION ALL ", parts) + ") p " +
+                "GROUP BY app_id, uri_id";
+        if (query.getLimit() != null) {
+            source += " ORDER BY hits DESC LIMIT :limit";
+            params.addValue("limit", query.getLimit());
+        }
+        return "SELECT a.name AS app, u.uri AS uri, r.hits AS hits FROM (" + source + ") r " +
+                "JOIN stats_app a ON a.id = r.app_id " +
+                "JOIN stats_uri u ON u.id = r.uri_id " +
+                "ORDER BY r.hits DESC";
+    }
+
+    private void addRollupParts() {
+        LocalDateTime start = query.getStart();
+        LocalDateTime end = query.getEnd();
+        LocalDateTime minuteStart = TimeBuckets.ceil(start, ChronoUnit.MINUTES);
+        LocalDateTime minuteEnd = TimeBuckets.floor(end, ChronoUnit.MINUTES);
+        if (!minuteStart.isBefore(minuteEnd)) {
+            addRawPart(start, end, !query.isEndExclusive());
+            return;
+        }
+        addRawPart(start, minuteStart, false);
+        LocalDateTime hourStart = TimeBuckets.ceil(minuteStart, ChronoUnit.HOURS);
+        LocalDateTime hourEnd = TimeBuckets.floor(minuteEnd, ChronoUnit.HOURS);
+        if (hourStart.isBefore(hourEnd)) {
+            addRollupPart("stats_minute", minuteStart, hourStart);
+            addRollupPart("stats_hour", hourStart, hourEnd);
+            addRollupPart("stats_minute", hourEnd, minuteEnd);
+        } else {
+            addRollupPart("stats_minute", minuteStart, minuteEnd);
+        }
+        addRawPart(minuteEnd, end, !query.isEndExclusive());
+    }
+
+    private void addRawPart(LocalDateTime from, LocalDateTime to, boolean inclusive) {
+        String hits = query.isUnique() ? "COUNT(DISTINCT ip_id)" : RawHits.count(compacted);
+        parts.add("SELECT app_id, uri_id, " + hits + " AS hits FROM " + RawHits.source(compacted) + " " +
+                "WHERE " + range("timestamp", from, to, inclusive) + uriFilter() + " GROUP BY app_id, uri_id");
+    }
+
+    private void addRollupPart(String table, LocalDateTime from, LocalDateTime to) {
+        parts.add("SELECT app_id, uri_id, hits FROM " + table + " " +
+                "WHERE " + range("bucket", from, to, false) + uriFilter());
+    }
+
+    private String range(String column, LocalDateTime from, LocalDateTime to, boolean inclusive) {
+        int index = parts.size();
+        params.addValue("from" + index, Timestamp.valueOf(from));
+        params.addValue("to" + index, Timestamp.valueOf(to));
+        return column + " >= :from" + index + " AND " + column + (inclusive ? " <= " : " < ") + ":to" + index;
+    }
+
+    private String uriFilter() {
+        return UriIdFilter.sql(query.getUriIds());
+    }
+}
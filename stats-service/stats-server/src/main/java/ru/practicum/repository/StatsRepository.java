@@ -1,48 +1,40 @@
 package ru.practicum.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-import org.springframework.stereotype.Repository;
+import ru.practicum.TimeSeriesStatsDto;
 import ru.practicum.ViewStatsDto;
 import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 
-@Repository
-public interface StatsRepository extends JpaRepository<Stats, Long> {
-    @Query("SELECT new ru.practicum.ViewStatsDto(e.app, e.uri, COUNT(DISTINCT e.ip)) " +
-            "FROM Stats e " +
-            "WHERE e.timestamp BETWEEN :start AND :end AND e.uri IN :uris " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER BY COUNT(DISTINCT e.ip) DESC ")
-    List<ViewStatsDto> findAllStatsWithUniqueAndUris(@Param("start") LocalDateTime start,
-                                                     @Param("end") LocalDateTime end,
-                                                     @Param("uris") List<String> uris);
-
-    @Query("SELECT new ru.practicum.ViewStatsDto(e.app, e.uri, COUNT(DISTINCT e.ip)) " +
-            "FROM Stats e " +
-            "WHERE e.timestamp BETWEEN :start AND :end " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER BY COUNT(DISTINCT e.ip) DESC ")
-    List<ViewStatsDto> findAllStatsWithUnique(@Param("start") LocalDateTime start,
-                                              @Param("end") LocalDateTime end);
-
-    @Query("SELECT new ru.practicum.ViewStatsDto(e.app, e.uri, COUNT(e.ip)) " +
-            "FROM Stats e " +
-            "WHERE e.timestamp BETWEEN :start AND :end " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER BY COUNT(e.ip) DESC ")
-    List<ViewStatsDto> findAllStats(@Param("start") LocalDateTime start,
-                                    @Param("end") LocalDateTime end);
-
-    @Query("SELECT new ru.practicum.ViewStatsDto(e.app, e.uri, COUNT(e.ip)) " +
-            "FROM Stats e " +
-            "WHERE e.timestamp BETWEEN :start AND :end AND e.uri IN :uris " +
-            "GROUP BY e.app, e.uri " +
-            "ORDER BY COUNT(e.ip) DESC ")
-    List<ViewStatsDto> findAllStatsWithUris(@Param("start") LocalDateTime start,
-                                            @Param("end") LocalDateTime end,
-                                            @Param("uris") List<String> uris);
+public interface StatsRepository {
+
+    void insertAll(List<Stats> hits);
+
+    List<ViewStatsDto> findStats(StatsQuery query);
+
+    void streamStats(StatsQuery query, Consumer<ViewStatsDto> consumer);
+
+    List<TimeSeriesStatsDto> findTimeSeries(ChronoUnit unit, StatsQuery query);
+
+    void forEachHit(LocalDateTime from, Consumer<Stats> consumer);
+
+    void forEachDistinctIp(LocalDateTime from, LocalDateTime to, boolean inclusive, List<Integer> uriIds,
+                           IpConsumer consumer);
+
+    void forEachBucketCount(ChronoUnit unit, LocalDateTime from, LocalDateTime to, boolean inclusive,
+                            List<Integer> uriIds, BucketCountConsumer consumer);
+
+    @FunctionalInterface
+    interface IpConsumer {
+        void accept(int appId, int uriId, int ipId);
+    }
+
+    @FunctionalInterface
+    interface BucketCountConsumer {
+        void accept(LocalDateTime bucket, int appId, int uriId, long hits);
+    }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Stats;
+import ru.practicum.util.TimeBuckets;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class StatsRollupRepository {
+    private static final String POSTGRES_UPSERT = "INSERT INTO %1$s (app_id, uri_id, bucket, hits) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (uri_id, bucket, app_id) DO UPDATE SET hits = %1$s.hits + EXCLUDED.hits";
+    private static final String MERGE_UPSERT = "MERGE INTO %s t " +
+            "USING (VALUES (CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS TIMESTAMP), " +
+            "CAST(? AS BIGINT))) s(app_id, uri_id, bucket, hits) " +
+            "ON t.app_id = s.app_id AND t.uri_id = s.uri_id AND t.bucket = s.bucket " +
+            "WHEN MATCHED THEN UPDATE SET hits = t.hits + s.hits " +
+            "WHEN NOT MATCHED THEN INSERT (app_id, uri_id, bucket, hits) " +
+            "VALUES (s.app_id, s.uri_id, s.bucket, s.hits)";
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::uriId)
+            .thenComparing(RollupKey::bucket)
+            .thenComparing(RollupKey::appId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public void increment(List<Stats> hits) {
+        upsert("stats_minute", aggregate(hits, ChronoUnit.MINUTES));
+        upsert("stats_hour", aggregate(hits, ChronoUnit.HOURS));
+    }
+
+    private Map<RollupKey, Long> aggregate(List<Stats> hits, ChronoUnit unit) {
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (Stats hit : hits) {
+            RollupKey key = new RollupKey(hit.getAppId(), hit.getUriId(),
+                    TimeBuckets.floor(hit.getTimestamp(), unit));
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private void upsert(String table, Map<RollupKey, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        String sql = String.format(dialect.isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT, table);
+        jdbcTemplate.batchUpdate(sql, counts.entrySet(), counts.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getKey().appId());
+            ps.setInt(2, entry.getKey().uriId());
+            ps.setTimestamp(3, Timestamp.valueOf(entry.getKey().bucket()));
+            ps.setLong(4, entry.getValue());
+        });
+    }
+
+    private record RollupKey(int appId, int uriId, LocalDateTime bucket) {
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+import ru.practicum.sketch.HyperLogLog;
+import ru.practicum.sketch.SketchKey;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnJdbcStorage
+public class StatsSketchRepository {
+    public static final Comparator<SketchKey> KEY_ORDER = Comparator.comparingInt(SketchKey::uriId)
+            .thenComparing(SketchKey::bucket)
+            .thenComparingInt(SketchKey::appId);
+
+    private static final int LOCK_CHUNK_SIZE = 1000;
+    private static final String ROWS = "unnest(:appIds, :uriIds, :buckets, :registers) " +
+            "AS s(app_id, uri_id, bucket, registers)";
+    private static final String POSTGRES_INSERT = "INSERT INTO stats_sketch (app_id, uri_id, bucket, registers) " +
+            "SELECT app_id, uri_id, bucket, registers FROM " + ROWS + " " +
+            "ON CONFLICT DO NOTHING RETURNING app_id, uri_id, bucket";
+    private static final String MERGE_INSERT = "SELECT app_id, uri_id, bucket FROM FINAL TABLE (" +
+            "MERGE INTO stats_sketch t USING (SELECT * FROM " + ROWS + ") s " +
+            "ON t.app_id = s.app_id AND t.uri_id = s.uri_id AND t.bucket = s.bucket " +
+            "WHEN NOT MATCHED THEN INSERT (app_id, uri_id, bucket, registers) " +
+            "VALUES (s.app_id, s.uri_id, s.bucket, s.registers))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    public Set<SketchKey> insertMissing(List<SketchKey> keys, Map<SketchKey, HyperLogLog> sketches) {
+        Object[] appIds = new Object[keys.size()];
+        Object[] uriIds = new Object[keys.size()];
+        Object[] buckets = new Object[keys.size()];
+        Object[] registers = new Object[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            SketchKey key = keys.get(i);
+            appIds[i] = key.appId();
+            uriIds[i] = key.uriId();
+            buckets[i] = Timestamp.valueOf(key.bucket());
+            registers[i] = sketches.get(key).toBytes();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("appIds", new SqlArrayValue("integer", appIds))
+                .addValue("uriIds", new SqlArrayValue("integer", uriIds))
+                .addValue("buckets", new SqlArrayValue("timestamp", buckets))
+                .addValue("registers", new SqlArrayValue("bytea", registers));
+        Set<SketchKey> inserted = new HashSet<>();
+        namedJdbcTemplate.query(dialect.isPostgres() ? POSTGRES_INSERT : MERGE_INSERT, params,
+                (RowCallbackHandler) rs -> inserted.add(new SketchKey(rs.getInt("app_id"), rs.getInt("uri_id"),
+                        rs.getTimestamp("bucket").toLocalDateTime())));
+        return inserted;
+    }
+
+    public Map<SketchKey, HyperLogLog> lockAll(List<SketchKey> keys) {
+        Map<SketchKey, HyperLogLog> locked = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += LOCK_CHUNK_SIZE) {
+            List<SketchKey> chunk = keys.subList(from, Math.min(keys.size(), from + LOCK_CHUNK_SIZE));
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (SketchKey key : chunk) {
+                args.add(key.uriId());
+                args.add(Timestamp.valueOf(key.bucket()));
+                args.add(key.appId());
+            }
+            String rows = String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?)"));
+            jdbcTemplate.query("SELECT app_id, uri_id, bucket, registers FROM stats_sketch " +
+                            "WHERE (uri_id, bucket, app_id) IN (" + rows + ") " +
+                            "ORDER BY uri_id, bucket, app_id FOR UPDATE",
+                    (RowCallbackHandler) rs -> locked.put(new SketchKey(rs.getInt("app_id"), rs.getInt("uri_id"),
+                            rs.getTimestamp("bucket").toLocalDateTime()),
+                            HyperLogLog.fromBytes(rs.getBytes("registers"))),
+                    args.toArray());
+        }
+        return locked;
+    }
+
+    public void updateAll(Map<SketchKey, HyperLogLog> sketches) {
+        jdbcTemplate.batchUpdate("UPDATE stats_sketch SET registers = ? WHERE uri_id = ? AND bucket = ? AND app_id = ?",
+                sketches.entrySet(), sketches.size(), (ps, entry) -> {
+                    ps.setBytes(1, entry.getValue().toBytes());
+                    ps.setInt(2, entry.getKey().uriId());
+                    ps.setTimestamp(3, Timestamp.valueOf(entry.getKey().bucket()));
+                    ps.setInt(4, entry.getKey().appId());
+                });
+    }
+
+    public void forEachSketch(LocalDateTime from, LocalDateTime to, List<Integer> uriIds,
+                              BiConsumer<SketchKey, HyperLogLog> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("uriIds", UriIdFilter.param(uriIds));
+        String sql = "SELECT app_id, uri_id, bucket, registers FROM stats_sketch " +
+                "WHERE bucket >= :from AND bucket < :to" + uriFilter(uriIds);
+        namedJdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> consumer.accept(
+                new SketchKey(rs.getInt("app_id"), rs.getInt("uri_id"),
+                        rs.getTimestamp("bucket").toLocalDateTime()),
+                HyperLogLog.fromBytes(rs.getBytes("registers"))));
+    }
+
+    private String uriFilter(List<Integer> uriIds) {
+        return UriIdFilter.sql(uriIds);
+    }
+}
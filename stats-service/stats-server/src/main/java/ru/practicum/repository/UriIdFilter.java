@@ -0,0 +1,19 @@
+package ru.practicum.repository;
+
+import org.springframework.jdbc.support.SqlArrayValue;
+
+import java.util.List;
+
+final class UriIdFilter {
+
+    private UriIdFilter() {
+    }
+
+    static String sql(List<Integer> uriIds) {
+        return uriIds == null ? "" : " AND uri_id = ANY(:uriIds)";
+    }
+
+    static Object param(List<Integer> uriIds) {
+        return uriIds == null ? null : new SqlArrayValue("integer", uriIds.toArray());
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.segment;
+
+@FunctionalInterface
+public interface HitRecordConsumer {
+    void accept(long timestamp, int appId, int uriId, int ipId);
+}
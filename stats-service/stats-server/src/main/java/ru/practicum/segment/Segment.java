@@ -0,0 +1,194 @@
+package ru.practicum.segment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+class Segment implements Closeable {
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 24;
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - 4;
+    private static final int MAGIC = 0x53545347;
+    private static final int VERSION = 1;
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final SegmentIndex index;
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_SIZE);
+
+    private volatile int count;
+    private volatile boolean sealed;
+
+    private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity,
+                    SegmentIndex index, int count, boolean sealed) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.index = index;
+        this.count = count;
+        this.sealed = sealed;
+    }
+
+    static Path fileName(Path directory, long sequence) {
+        return directory.resolve(String.format("%020d.seg", sequence));
+    }
+
+    static Segment create(Path directory, long sequence, int capacity, int blockSize) throws IOException {
+        Path path = fileName(directory, sequence);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putInt(8, RECORD_SIZE)
+                .putInt(12, capacity)
+                .putLong(16, sequence);
+        buffer.force();
+        return new Segment(sequence, path, channel, buffer, capacity, new SegmentIndex(blockSize, capacity), 0, false);
+    }
+
+    static Segment open(Path path, int blockSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            channel.close();
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        int capacity = header.getInt(12);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE
+                || capacity <= 0 || size != HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            channel.close();
+            return null;
+        }
+        long sequence = header.getLong(16);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        SegmentIndex index = SegmentIndex.read(indexPath(path), capacity);
+        if (index != null) {
+            return new Segment(sequence, path, channel, buffer, capacity, index, index.recordCount, true);
+        }
+        Segment segment = new Segment(sequence, path, channel, buffer, capacity,
+                new SegmentIndex(blockSize, capacity), 0, false);
+        segment.recover();
+        return segment;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean append(long timestamp, int appId, int uriId, int ipId) {
+        int position = count;
+        if (position == capacity) {
+            return false;
+        }
+        payload.clear();
+        payload.putLong(timestamp).putInt(appId).putInt(uriId).putInt(ipId);
+        crc.reset();
+        crc.update(payload.array(), 0, PAYLOAD_SIZE);
+        int offset = offset(position);
+        buffer.put(offset, payload.array(), 0, PAYLOAD_SIZE);
+        buffer.putInt(offset + PAYLOAD_SIZE, (int) crc.getValue());
+        index.add(position, timestamp);
+        count = position + 1;
+        return true;
+    }
+
+    void scan(long from, long to, HitRecordConsumer consumer) {
+        int size = count;
+        if (size == 0 || !index.overlaps(from, to)) {
+            return;
+        }
+        int blockSize = index.blockSize;
+        for (int block = 0; block * blockSize < size; block++) {
+            if (!index.blockOverlaps(block, from, to)) {
+                continue;
+            }
+            int end = Math.min(size, (block + 1) * blockSize);
+            for (int position = block * blockSize; position < end; position++) {
+                int offset = offset(position);
+                long timestamp = buffer.getLong(offset);
+                if (timestamp >= from && timestamp <= to) {
+                    consumer.accept(timestamp, buffer.getInt(offset + 8), buffer.getInt(offset + 12),
+                            buffer.getInt(offset + 16));
+                }
+            }
+        }
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        buffer.force();
+        index.write(indexPath(path), count);
+        sealed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!sealed) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    private void recover() {
+        byte[] record = new byte[PAYLOAD_SIZE];
+        int position = 0;
+        while (position < capacity) {
+            int offset = offset(position);
+            buffer.get(offset, record);
+            crc.reset();
+            crc.update(record);
+            if (buffer.getInt(offset + PAYLOAD_SIZE) != (int) crc.getValue()) {
+                break;
+            }
+            index.add(position, buffer.getLong(offset));
+            position++;
+        }
+        count = position;
+        for (int torn = position; torn < capacity && !isEmpty(torn); torn++) {
+            int offset = offset(torn);
+            buffer.putLong(offset, 0).putLong(offset + 8, 0).putLong(offset + 16, 0);
+        }
+    }
+
+    private boolean isEmpty(int position) {
+        int offset = offset(position);
+        return buffer.getLong(offset) == 0 && buffer.getLong(offset + 8) == 0 && buffer.getLong(offset + 16) == 0;
+    }
+
+    private static int offset(int position) {
+        return HEADER_SIZE + position * RECORD_SIZE;
+    }
+
+    private static Path indexPath(Path path) {
+        return path.resolveSibling(path.getFileName().toString().replace(".seg", ".idx"));
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.segment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.DictionaryTable;
+import ru.practicum.repository.StatsDictionaryRepository;
+import ru.practicum.util.UriPatterns;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "stats.storage", havingValue = "segment")
+public class SegmentDictionaryRepository implements StatsDictionaryRepository {
+    private static final String FILE_NAME = "dictionary.log";
+    private static final int ENTRY_HEADER_SIZE = 9;
+    private static final int MAX_VALUE_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final boolean fsync;
+    private final Map<DictionaryTable, Map<Object, Integer>> ids = new EnumMap<>(DictionaryTable.class);
+    private final Map<DictionaryTable, Map<Integer, Object>> values = new EnumMap<>(DictionaryTable.class);
+    private final Map<DictionaryTable, Integer> lastIds = new EnumMap<>(DictionaryTable.class);
+
+    private FileChannel channel;
+
+    public SegmentDictionaryRepository(SegmentLog segmentLog,
+                                       @Value("${stats.segment.fsync:false}") boolean fsync) {
+        this.path = segmentLog.getDirectory().resolve(FILE_NAME);
+        this.fsync = fsync;
+        for (DictionaryTable table : DictionaryTable.values()) {
+            ids.put(table, new HashMap<>());
+            values.put(table, new HashMap<>());
+            lastIds.put(table, 0);
+        }
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        buffer.flip();
+        int valid = replay(buffer);
+        if (valid < buffer.limit()) {
+            log.warn("Словарь {} обрезан с {} до {} байт после неполной записи", path, buffer.limit(), valid);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        log.info("Загружен словарь {}: приложений {}, uri {}, ip {}", path, ids.get(DictionaryTable.APP).size(),
+                ids.get(DictionaryTable.URI).size(), ids.get(DictionaryTable.IP).size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public synchronized Map<String, Integer> findIds(DictionaryTable table, Collection<String> names) {
+        return find(table, names);
+    }
+
+    @Override
+    public synchronized Map<ByteBuffer, Integer> findIpIds(Collection<ByteBuffer> addresses) {
+        return find(DictionaryTable.IP, addresses);
+    }
+
+    @Override
+    public synchronized Map<Integer, String> findNames(DictionaryTable table, Collection<Integer> idValues) {
+        Map<Integer, Object> stored = values.get(table);
+        Map<Integer, String> names = new HashMap<>();
+        for (Integer id : idValues) {
+            Object value = stored.get(id);
+            if (value != null) {
+                names.put(id, (String) value);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized Map<String, Integer> findUrisByPrefix(String prefix, int limit) {
+        Map<String, Integer> found = new HashMap<>();
+        for (Map.Entry<Object, Integer> entry : ids.get(DictionaryTable.URI).entrySet()) {
+            if (found.size() == limit) {
+                break;
+            }
+            if (((String) entry.getKey()).startsWith(prefix)) {
+                found.put((String) entry.getKey(), entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized List<Integer> findUriIdsByPattern(String pattern) {
+        Pattern glob = UriPatterns.toRegex(pattern);
+        List<Integer> found = new ArrayList<>();
+        for (Map.Entry<Object, Integer> entry : ids.get(DictionaryTable.URI).entrySet()) {
+            if (glob.matcher((String) entry.getKey()).matches()) {
+                found.add(entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized void insertMissing(DictionaryTable table, List<?> missing) {
+        Map<Object, Integer> stored = ids.get(table);
+        try {
+            for (Object value : missing) {
+                if (stored.containsKey(value)) {
+                    continue;
+                }
+                int id = lastIds.get(table) + 1;
+                channel.write(encode(table, id, value));
+                remember(table, id, value);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> Map<T, Integer> find(DictionaryTable table, Collection<T> keys) {
+        Map<Object, Integer> stored = ids.get(table);
+        Map<T, Integer> found = new HashMap<>();
+        for (T key : keys) {
+            Integer id = stored.get(key);
+            if (id != null) {
+                found.put(key, id);
+            }
+        }
+        return found;
+    }
+
+    private int replay(ByteBuffer buffer) {
+        DictionaryTable[] tables = DictionaryTable.values();
+        while (buffer.remaining() >= ENTRY_HEADER_SIZE + 4) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int ordinal = buffer.get();
+            int id = buffer.getInt();
+            if (length < 0 || length > MAX_VALUE_SIZE || ordinal < 0 || ordinal >= tables.length
+                    || buffer.remaining() < length + 4) {
+                return start;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), start, ENTRY_HEADER_SIZE + length);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                return start;
+            }
+            DictionaryTable table = tables[ordinal];
+            remember(table, id, table == DictionaryTable.IP ? ByteBuffer.wrap(bytes)
+                    : new String(bytes, StandardCharsets.UTF_8));
+        }
+        return buffer.position();
+    }
+
+    private ByteBuffer encode(DictionaryTable table, int id, Object value) {
+        byte[] bytes = value instanceof ByteBuffer address ? address.array()
+                : ((String) value).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_HEADER_SIZE + bytes.length + 4);
+        buffer.putInt(bytes.length).put((byte) table.ordinal()).putInt(id).put(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private void remember(DictionaryTable table, int id, Object value) {
+        ids.get(table).put(value, id);
+        values.get(table).put(id, value);
+        lastIds.merge(table, id, Math::max);
+    }
+}
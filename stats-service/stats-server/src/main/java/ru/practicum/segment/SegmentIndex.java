@@ -0,0 +1,92 @@
+package ru.practicum.segment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+class SegmentIndex {
+    private static final int MAGIC = 0x53544958;
+    private static final int HEADER_SIZE = 32;
+
+    final int blockSize;
+    final long[] blockMin;
+    final long[] blockMax;
+    int recordCount;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+
+    SegmentIndex(int blockSize, int capacity) {
+        this.blockSize = blockSize;
+        int blocks = (capacity + blockSize - 1) / blockSize;
+        blockMin = new long[blocks];
+        blockMax = new long[blocks];
+        Arrays.fill(blockMin, Long.MAX_VALUE);
+        Arrays.fill(blockMax, Long.MIN_VALUE);
+    }
+
+    void add(int position, long timestamp) {
+        int block = position / blockSize;
+        blockMin[block] = Math.min(blockMin[block], timestamp);
+        blockMax[block] = Math.max(blockMax[block], timestamp);
+        min = Math.min(min, timestamp);
+        max = Math.max(max, timestamp);
+    }
+
+    boolean overlaps(long from, long to) {
+        return min <= to && max >= from;
+    }
+
+    boolean blockOverlaps(int block, long from, long to) {
+        return blockMin[block] <= to && blockMax[block] >= from;
+    }
+
+    void write(Path path, int count) throws IOException {
+        int blocks = (count + blockSize - 1) / blockSize;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + blocks * 16 + 4);
+        buffer.putInt(MAGIC).putInt(count).putInt(blockSize).putInt(blocks).putLong(min).putLong(max);
+        for (int block = 0; block < blocks; block++) {
+            buffer.putLong(blockMin[block]).putLong(blockMax[block]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static SegmentIndex read(Path path, int capacity) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE + 4 || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        int count = buffer.getInt();
+        int blockSize = buffer.getInt();
+        int blocks = buffer.getInt();
+        if (count < 0 || count > capacity || blockSize <= 0 || blocks != (count + blockSize - 1) / blockSize
+                || buffer.capacity() != HEADER_SIZE + blocks * 16 + 4) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.capacity() - 4);
+        if (buffer.getInt(buffer.capacity() - 4) != (int) crc.getValue()) {
+            return null;
+        }
+        SegmentIndex index = new SegmentIndex(blockSize, capacity);
+        index.recordCount = count;
+        index.min = buffer.getLong();
+        index.max = buffer.getLong();
+        for (int block = 0; block < blocks; block++) {
+            index.blockMin[block] = buffer.getLong();
+            index.blockMax[block] = buffer.getLong();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.segment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.model.Stats;
+import ru.practicum.util.TimeBuckets;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.storage", havingValue = "segment")
+public class SegmentLog {
+    private static final int MAX_SEGMENT_SIZE_MB = 2047;
+
+    private final Path directory;
+    private final int capacity;
+    private final int blockSize;
+    private final boolean fsync;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private Segment active;
+
+    public SegmentLog(@Value("${stats.segment.directory:data/segments}") String directory,
+                      @Value("${stats.segment.size-mb:64}") int sizeMb,
+                      @Value("${stats.segment.index-block-records:4096}") int blockSize,
+                      @Value("${stats.segment.fsync:false}") boolean fsync) {
+        this.directory = Path.of(directory);
+        this.capacity = (int) ((Math.min(sizeMb, MAX_SEGMENT_SIZE_MB) * 1024L * 1024L - Segment.HEADER_SIZE)
+                / Segment.RECORD_SIZE);
+        this.blockSize = blockSize;
+        this.fsync = fsync;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Segment segment = Segment.open(files.get(i), blockSize);
+            if (segment == null) {
+                if (i < files.size() - 1) {
+                    throw new IllegalStateException("Повреждён заголовок сегмента: " + files.get(i));
+                }
+                log.warn("Удалён недописанный сегмент: {}", files.get(i));
+                Files.delete(files.get(i));
+                continue;
+            }
+            if (!segment.isSealed() && i < files.size() - 1) {
+                segment.seal();
+            }
+            segments.add(segment);
+        }
+        if (segments.isEmpty() || segments.getLast().isSealed()) {
+            long sequence = segments.isEmpty() ? 1 : segments.getLast().getSequence() + 1;
+            segments.add(Segment.create(directory, sequence, capacity, blockSize));
+        }
+        active = segments.getLast();
+        log.info("Открыт журнал сегментов {}: сегментов {}, записей {}", directory, segments.size(),
+                segments.stream().mapToLong(Segment::getCount).sum());
+    }
+
+    public synchronized void append(List<Stats> hits) {
+        try {
+            for (Stats hit : hits) {
+                long timestamp = TimeBuckets.toEpochMilli(hit.getTimestamp());
+                if (!active.append(timestamp, hit.getAppId(), hit.getUriId(), hit.getIpId())) {
+                    roll();
+                    active.append(timestamp, hit.getAppId(), hit.getUriId(), hit.getIpId());
+                }
+            }
+            if (fsync) {
+                active.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void scan(long from, long to, HitRecordConsumer consumer) {
+        for (Segment segment : segments) {
+            segment.scan(from, to, consumer);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private void roll() throws IOException {
+        active.seal();
+        Segment next = Segment.create(directory, active.getSequence() + 1, capacity, blockSize);
+        segments.add(next);
+        active = next;
+        log.debug("Создан сегмент {}", next.getSequence());
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.segment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.AppUriKey;
+import ru.practicum.aggregate.StatsAggregator;
+import ru.practicum.aggregate.TimeSeriesAggregator;
+import ru.practicum.aggregate.UriFilter;
+import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.StatsDictionaryRepository;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.storage", havingValue = "segment")
+public class SegmentStatsRepository implements StatsRepository {
+    private final SegmentLog segmentLog;
+    private final StatsDictionaryRepository dictionaryRepository;
+
+    @Override
+    public void insertAll(List<Stats> hits) {
+        segmentLog.append(hits);
+    }
+
+    @Override
+    public List<ViewStatsDto> findStats(StatsQuery query) {
+        UriFilter uriFilter = UriFilter.of(query.getUriIds());
+        StatsAggregator aggregator = new StatsAggregator(query.isUnique());
+        scan(query.getStart(), query.getEnd(), !query.isEndExclusive(), (timestamp, appId, uriId, ipId) -> {
+            if (uriFilter.matches(uriId)) {
+                aggregator.add(appId, uriId, ipId);
+            }
+        });
+        return aggregator.toViewStats(dictionaryRepository::findNames, query.getLimit());
+    }
+
+    @Override
+    public void streamStats(StatsQuery query, Consumer<ViewStatsDto> consumer) {
+        findStats(query).forEach(consumer);
+    }
+
+    @Override
+    public List<TimeSeriesStatsDto> findTimeSeries(ChronoUnit unit, StatsQuery query) {
+        UriFilter uriFilter = UriFilter.of(query.getUriIds());
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(unit);
+        scan(query.getStart(), query.getEnd(), !query.isEndExclusive(), (timestamp, appId, uriId, ipId) -> {
+            if (uriFilter.matches(uriId)) {
+                aggregator.add(timestamp, appId, uriId, ipId);
+            }
+        });
+        return aggregator.toTimeSeries(dictionaryRepository::findNames);
+    }
+
+    @Override
+    public void forEachHit(LocalDateTime from, Consumer<Stats> consumer) {
+        segmentLog.scan(TimeBuckets.toEpochMilli(from), Long.MAX_VALUE, (timestamp, appId, uriId, ipId) ->
+                consumer.accept(Stats.builder()
+                        .appId(appId)
+                        .uriId(uriId)
+                        .ipId(ipId)
+                        .timestamp(TimeBuckets.fromEpochMilli(timestamp))
+                        .build()));
+    }
+
+    @Override
+    public void forEachDistinctIp(LocalDateTime from, LocalDateTime to, boolean inclusive, List<Integer> uriIds,
+                                  IpConsumer consumer) {
+        UriFilter uriFilter = UriFilter.of(uriIds);
+        Map<Long, Set<Integer>> ips = new HashMap<>();
+        scan(from, to, inclusive, (timestamp, appId, uriId, ipId) -> {
+            if (uriFilter.matches(uriId)) {
+                ips.computeIfAbsent(AppUriKey.of(appId, uriId), k -> new HashSet<>()).add(ipId);
+            }
+        });
+        ips.forEach((key, values) -> values.forEach(ipId ->
+                consumer.accept(AppUriKey.appId(key), AppUriKey.uriId(key), ipId)));
+    }
+
+    @Override
+    public void forEachBucketCount(ChronoUnit unit, LocalDateTime from, LocalDateTime to, boolean inclusive,
+                                   List<Integer> uriIds, BucketCountConsumer consumer) {
+        long size = unit.getDuration().toMillis();
+        UriFilter uriFilter = UriFilter.of(uriIds);
+        Map<Long, Map<Long, long[]>> buckets = new HashMap<>();
+        scan(from, to, inclusive, (timestamp, appId, uriId, ipId) -> {
+            if (uriFilter.matches(uriId)) {
+                buckets.computeIfAbsent(timestamp - Math.floorMod(timestamp, size), k -> new HashMap<>())
+                        .computeIfAbsent(AppUriKey.of(appId, uriId), k -> new long[1])[0]++;
+            }
+        });
+        buckets.forEach((bucket, counts) -> counts.forEach((key, hits) -> consumer.accept(
+                TimeBuckets.fromEpochMilli(bucket), AppUriKey.appId(key), AppUriKey.uriId(key), hits[0])));
+    }
+
+    private void scan(LocalDateTime from, LocalDateTime to, boolean inclusive, HitRecordConsumer consumer) {
+        long end = TimeBuckets.toEpochMilli(to);
+        segmentLog.scan(TimeBuckets.toEpochMilli(from), inclusive ? end : end - 1, consumer);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.backfill.BackfillResult;
+import ru.practicum.backfill.HitFileFormat;
+import ru.practicum.backfill.HitFileReader;
+import ru.practicum.cache.StatsIntervalCache;
+import ru.practicum.ingest.HitListener;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsBackfillRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stats.backfill.enabled", havingValue = "true")
+@ConditionalOnJdbcStorage
+public class BackfillService {
+    private final HitWriter hitWriter;
+    private final StatsBackfillRepository backfillRepository;
+    private final StatsPartitionManager partitionManager;
+    private final List<HitListener> hitListeners;
+    private final ObjectProvider<StatsIntervalCache> statsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BackfillService(HitWriter hitWriter,
+                           StatsBackfillRepository backfillRepository,
+                           StatsPartitionManager partitionManager,
+                           List<HitListener> hitListeners,
+                           ObjectProvider<StatsIntervalCache> statsCache,
+                           TransactionTemplate transactionTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${stats.backfill.chunk-size:50000}") int chunkSize) {
+        this.hitWriter = hitWriter;
+        this.backfillRepository = backfillRepository;
+        this.partitionManager = partitionManager;
+        this.hitListeners = hitListeners;
+        this.statsCache = statsCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public BackfillResult load(InputStream input, HitFileFormat format) throws IOException {
+        HitFileReader reader = new HitFileReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format, objectMapper);
+        long total = 0;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        try {
+            List<EndpointHitDto> chunk;
+            while (!(chunk = reader.read(chunkSize)).isEmpty()) {
+                List<Stats> hits = hitWriter.resolve(chunk);
+                LocalDateTime chunkFrom = hits.stream().map(Stats::getTimestamp)
+                        .min(LocalDateTime::compareTo).orElseThrow();
+                LocalDateTime chunkTo = hits.stream().map(Stats::getTimestamp)
+                        .max(LocalDateTime::compareTo).orElseThrow();
+                partitionManager.ensurePartitions(chunkFrom.toLocalDate(), chunkTo.toLocalDate());
+                transactionTemplate.executeWithoutResult(status -> {
+                    backfillRepository.insertAll(hits);
+                    hitListeners.forEach(listener -> listener.onBackfill(hits));
+                });
+                if (from == null || chunkFrom.isBefore(from)) {
+                    from = chunkFrom;
+                }
+                if (to == null || chunkTo.isAfter(to)) {
+                    to = chunkTo;
+                }
+                total += hits.size();
+                log.info("Загружено исторических посещений: {}", total);
+            }
+        } finally {
+            if (from != null) {
+                statsCache.ifAvailable(StatsIntervalCache::clear);
+            }
+        }
+        return new BackfillResult(total, from, to);
+    }
+}
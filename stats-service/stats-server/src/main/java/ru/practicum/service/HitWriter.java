@@ -0,0 +1,104 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.ingest.HitDeduplicator;
+import ru.practicum.ingest.HitListener;
+import ru.practicum.ingest.IngestThrottle;
+import ru.practicum.mapper.StatsMapper;
+import ru.practicum.metrics.StatsMetrics;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.StatsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class HitWriter {
+    private final StatsRepository statsRepository;
+    private final StatsDictionary dictionary;
+    private final ObjectProvider<TransactionTemplate> transactionTemplate;
+    private final List<HitListener> hitListeners;
+    private final ObjectProvider<HitDeduplicator> deduplicator;
+    private final ObjectProvider<IngestThrottle> throttle;
+    private final StatsMetrics metrics;
+
+    public void write(List<EndpointHitDto> hitDtos) {
+        HitDeduplicator dedup = deduplicator.getIfAvailable();
+        if (dedup == null) {
+            write(hitDtos, null);
+            return;
+        }
+        List<EndpointHitDto> accepted = dedup.claim(hitDtos);
+        if (accepted.isEmpty()) {
+            return;
+        }
+        boolean stored = false;
+        try {
+            write(accepted, dedup);
+            stored = true;
+        } finally {
+            dedup.release(accepted, stored);
+        }
+    }
+
+    List<Stats> resolve(List<EndpointHitDto> hitDtos) {
+        Map<String, Integer> appIds = dictionary.resolveApps(distinct(hitDtos, EndpointHitDto::getApp));
+        Map<String, Integer> uriIds = dictionary.resolveUris(distinct(hitDtos, EndpointHitDto::getUri));
+        Map<String, Integer> ipIds = dictionary.resolveIps(distinct(hitDtos, EndpointHitDto::getIp));
+        return hitDtos.stream()
+                .map(dto -> StatsMapper.fromEndpointHitDtoToEndpointHit(dto,
+                        appIds.get(dto.getApp()), uriIds.get(dto.getUri()), ipIds.get(dto.getIp())))
+                .toList();
+    }
+
+    private void write(List<EndpointHitDto> hitDtos, HitDeduplicator dedup) {
+        List<Stats> hits = resolve(hitDtos);
+        TransactionTemplate template = transactionTemplate.getIfAvailable();
+        long started = System.nanoTime();
+        metrics.insertTimer().record(() -> {
+            if (template != null) {
+                template.executeWithoutResult(status -> store(hitDtos, hits, dedup));
+            } else {
+                store(hitDtos, hits, dedup);
+            }
+        });
+        throttle.ifAvailable(t -> t.recordLatency(System.nanoTime() - started));
+        metrics.recordBatch(hits.size());
+    }
+
+    private void store(List<EndpointHitDto> hitDtos, List<Stats> hits, HitDeduplicator dedup) {
+        List<Stats> fresh = dedup == null ? hits : withoutDuplicates(hitDtos, hits, dedup.record(hitDtos));
+        if (fresh.isEmpty()) {
+            return;
+        }
+        statsRepository.insertAll(fresh);
+        hitListeners.forEach(listener -> listener.onHits(fresh));
+    }
+
+    private List<Stats> withoutDuplicates(List<EndpointHitDto> hitDtos, List<Stats> hits, Set<String> duplicates) {
+        if (duplicates.isEmpty()) {
+            return hits;
+        }
+        List<Stats> fresh = new ArrayList<>(hits.size());
+        for (int i = 0; i < hitDtos.size(); i++) {
+            String hitId = hitDtos.get(i).getHitId();
+            if (hitId == null || !duplicates.contains(hitId)) {
+                fresh.add(hits.get(i));
+            }
+        }
+        return fresh;
+    }
+
+    private Set<String> distinct(List<EndpointHitDto> hitDtos, Function<EndpointHitDto, String> field) {
+        return hitDtos.stream().map(field).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.StatsAggregator;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stats.query.parallel.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class ParallelStatsExecutor {
+    private final StatsRepository statsRepository;
+    private final StatsDictionary dictionary;
+    private final Duration minRange;
+    private final int shards;
+    private final ThreadPoolExecutor executor;
+
+    public ParallelStatsExecutor(StatsRepository statsRepository,
+                                 StatsDictionary dictionary,
+                                 @Value("${stats.query.parallel.parallelism:4}") int parallelism,
+                                 @Value("${stats.query.parallel.shards:8}") int shards,
+                                 @Value("${stats.query.parallel.min-range-days:7}") int minRangeDays) {
+        this.statsRepository = statsRepository;
+        this.dictionary = dictionary;
+        this.minRange = Duration.ofDays(minRangeDays);
+        this.shards = Math.max(1, shards);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * this.shards),
+                task -> new Thread(task, "stats-shard-" + threads.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public boolean applies(StatsQuery query) {
+        return !query.isUnique() && Duration.between(query.getStart(), query.getEnd()).compareTo(minRange) >= 0;
+    }
+
+    public List<ViewStatsDto> findStats(StatsQuery query) {
+        LocalDateTime first = TimeBuckets.ceil(query.getStart(), ChronoUnit.HOURS);
+        LocalDateTime last = TimeBuckets.floor(query.getEnd(), ChronoUnit.HOURS);
+        long hours = ChronoUnit.HOURS.between(first, last);
+        List<Future<StatsAggregator>> partials = new ArrayList<>();
+        partials.add(executor.submit(() -> aggregate(query, query.getStart(), first, false)));
+        LocalDateTime from = first;
+        for (int i = 1; i <= shards; i++) {
+            LocalDateTime to = first.plusHours(hours * i / shards);
+            if (from.isBefore(to)) {
+                LocalDateTime shardFrom = from;
+                partials.add(executor.submit(() -> aggregate(query, shardFrom, to, false)));
+            }
+            from = to;
+        }
+        partials.add(executor.submit(() -> aggregate(query, last, query.getEnd(), !query.isEndExclusive())));
+        log.debug("Запрос статистики разбит на {} частей", partials.size());
+        StatsAggregator merged = new StatsAggregator(false);
+        for (Future<StatsAggregator> partial : partials) {
+            merged.merge(await(partial));
+        }
+        return merged.toViewStats(dictionary::names, query.getLimit());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private StatsAggregator aggregate(StatsQuery query, LocalDateTime from, LocalDateTime to, boolean inclusive) {
+        StatsAggregator aggregator = new StatsAggregator(false);
+        if (to.isBefore(from) || to.equals(from) && !inclusive) {
+            return aggregator;
+        }
+        statsRepository.forEachBucketCount(ChronoUnit.DAYS, from, to, inclusive, query.getUriIds(),
+                (bucket, appId, uriId, count) -> aggregator.addHits(appId, uriId, count));
+        return aggregator;
+    }
+
+    private StatsAggregator await(Future<StatsAggregator> partial) {
+        try {
+            return partial.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Параллельный запрос статистики прерван", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
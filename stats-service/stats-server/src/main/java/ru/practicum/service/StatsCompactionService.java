@@ -0,0 +1,56 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsCompactionRepository;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stats.compaction.enabled", havingValue = "true")
+@ConditionalOnJdbcStorage
+public class StatsCompactionService {
+    private static final Set<ChronoUnit> BUCKET_UNITS = Set.of(ChronoUnit.MINUTES, ChronoUnit.HOURS);
+
+    private final StatsCompactionRepository compactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterDays;
+    private final ChronoUnit unit;
+    private final int chunkSize;
+
+    public StatsCompactionService(StatsCompactionRepository compactionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${stats.compaction.after-days:7}") int afterDays,
+                                  @Value("${stats.compaction.bucket-unit:HOURS}") ChronoUnit unit,
+                                  @Value("${stats.compaction.chunk-size:10000}") int chunkSize) {
+        if (!BUCKET_UNITS.contains(unit)) {
+            throw new IllegalArgumentException("Неподдерживаемый интервал уплотнения: " + unit);
+        }
+        this.compactionRepository = compactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.afterDays = afterDays;
+        this.unit = unit;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${stats.compaction.cron:0 30 0 * * *}")
+    public void compact() {
+        LocalDateTime before = TimeBuckets.floor(LocalDateTime.now().minusDays(afterDays), unit);
+        long total = 0;
+        int compacted;
+        do {
+            compacted = transactionTemplate.execute(status -> compactionRepository.compact(before, unit, chunkSize));
+            total += compacted;
+        } while (compacted == chunkSize);
+        log.info("Уплотнено посещений старше {}: {}", before, total);
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.model.DictionaryTable;
+import ru.practicum.repository.StatsDictionaryRepository;
+import ru.practicum.util.IpAddresses;
+import ru.practicum.util.UriPatterns;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class StatsDictionary {
+    private final StatsDictionaryRepository dictionaryRepository;
+    private final int ipCacheSize;
+    private final Map<DictionaryTable, Map<String, Integer>> ids = new ConcurrentHashMap<>();
+    private final Map<DictionaryTable, Map<Integer, String>> names = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ipIds = new ConcurrentHashMap<>();
+    private final UriPrefixIndex uriIndex = new UriPrefixIndex();
+    private final int uriIndexSize;
+
+    private volatile boolean uriIndexComplete;
+
+    public StatsDictionary(StatsDictionaryRepository dictionaryRepository,
+                           @Value("${stats.dictionary.ip-cache-size:1000000}") int ipCacheSize,
+                           @Value("${stats.dictionary.uri-index-size:100000}") int uriIndexSize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.ipCacheSize = ipCacheSize;
+        this.uriIndexSize = uriIndexSize;
+        for (DictionaryTable table : List.of(DictionaryTable.APP, DictionaryTable.URI)) {
+            ids.put(table, new ConcurrentHashMap<>());
+            names.put(table, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void loadUriIndex() {
+        Map<String, Integer> uris = dictionaryRepository.findUrisByPrefix("", uriIndexSize + 1);
+        if (uris.size() > uriIndexSize) {
+            log.info("Uri больше {}, поиск по префиксу выполняется в базе", uriIndexSize);
+            return;
+        }
+        uriIndex.putAll(uris);
+        uriIndexComplete = true;
+        log.info("Загружено uri в индекс префиксов: {}", uris.size());
+    }
+
+    public Map<String, Integer> resolveApps(Collection<String> apps) {
+        return resolve(DictionaryTable.APP, apps);
+    }
+
+    public Map<String, Integer> resolveUris(Collection<String> uris) {
+        return resolve(DictionaryTable.URI, uris);
+    }
+
+    public Map<String, Integer> resolveIps(Collection<String> ips) {
+        Map<String, Integer> resolved = new HashMap<>();
+        Map<ByteBuffer, List<String>> missing = new HashMap<>();
+        for (String ip : new HashSet<>(ips)) {
+            Integer id = ipIds.get(ip);
+            if (id != null) {
+                resolved.put(ip, id);
+            } else {
+                missing.computeIfAbsent(ByteBuffer.wrap(IpAddresses.toBytes(ip)), k -> new ArrayList<>()).add(ip);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        Map<ByteBuffer, Integer> found = dictionaryRepository.findIpIds(missing.keySet());
+        List<ByteBuffer> absent = missing.keySet().stream()
+                .filter(address -> !found.containsKey(address))
+                .sorted()
+                .toList();
+        if (!absent.isEmpty()) {
+            dictionaryRepository.insertMissing(DictionaryTable.IP, absent);
+            found.putAll(dictionaryRepository.findIpIds(absent));
+        }
+        if (ipIds.size() + missing.size() > ipCacheSize) {
+            ipIds.clear();
+        }
+        missing.forEach((address, texts) -> texts.forEach(ip -> {
+            resolved.put(ip, found.get(address));
+            ipIds.put(ip, found.get(address));
+        }));
+        return resolved;
+    }
+
+    public List<Integer> findUriIds(Collection<String> uris) {
+        Map<String, Integer> cache = ids.get(DictionaryTable.URI);
+        Set<Integer> found = new LinkedHashSet<>();
+        Set<String> missing = new HashSet<>();
+        for (String uri : uris) {
+            if (UriPatterns.isPattern(uri)) {
+                found.addAll(findUriIdsByPattern(uri));
+                continue;
+            }
+            Integer id = cache.get(uri);
+            if (id != null) {
+                found.add(id);
+            } else {
+                missing.add(uri);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Integer> loaded = dictionaryRepository.findIds(DictionaryTable.URI, missing);
+            remember(DictionaryTable.URI, loaded);
+            found.addAll(loaded.values());
+        }
+        return new ArrayList<>(found);
+    }
+
+    private Collection<Integer> findUriIdsByPattern(String pattern) {
+        if (!uriIndexComplete) {
+            return dictionaryRepository.findUriIdsByPattern(pattern);
+        }
+        int wildcard = pattern.indexOf(UriPatterns.WILDCARD);
+        Map<String, Integer> candidates = uriIndex.withPrefix(pattern.substring(0, wildcard));
+        if (wildcard == pattern.length() - 1) {
+            return candidates.values();
+        }
+        Pattern glob = UriPatterns.toRegex(pattern);
+        return candidates.entrySet().stream()
+                .filter(entry -> glob.matcher(entry.getKey()).matches())
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+    public Map<Integer, String> appNames(Collection<Integer> appIds) {
+        return names(DictionaryTable.APP, appIds);
+    }
+
+    public Map<Integer, String> uris(Collection<Integer> uriIds) {
+        return names(DictionaryTable.URI, uriIds);
+    }
+
+    private Map<String, Integer> resolve(DictionaryTable table, Collection<String> values) {
+        Map<String, Integer> cache = ids.get(table);
+        Map<String, Integer> resolved = new HashMap<>();
+        Set<String> missing = new TreeSet<>();
+        for (String value : values) {
+            Integer id = cache.get(value);
+            if (id != null) {
+                resolved.put(value, id);
+            } else {
+                missing.add(value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        Map<String, Integer> found = dictionaryRepository.findIds(table, missing);
+        List<String> absent = missing.stream().filter(value -> !found.containsKey(value)).toList();
+        if (!absent.isEmpty()) {
+            dictionaryRepository.insertMissing(table, absent);
+            found.putAll(dictionaryRepository.findIds(table, absent));
+        }
+        remember(table, found);
+        resolved.putAll(found);
+        return resolved;
+    }
+
+    public Map<Integer, String> names(DictionaryTable table, Collection<Integer> values) {
+        Map<Integer, String> cache = names.get(table);
+        Map<Integer, String> resolved = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer id : values) {
+            String name = cache.get(id);
+            if (name != null) {
+                resolved.put(id, name);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Integer, String> loaded = dictionaryRepository.findNames(table, missing);
+            loaded.forEach((id, name) -> ids.get(table).put(name, id));
+            cache.putAll(loaded);
+            resolved.putAll(loaded);
+        }
+        return resolved;
+    }
+
+    private void remember(DictionaryTable table, Map<String, Integer> found) {
+        ids.get(table).putAll(found);
+        found.forEach((value, id) -> names.get(table).put(id, value));
+        if (table == DictionaryTable.URI && uriIndexComplete) {
+            uriIndex.putAll(found);
+            if (uriIndex.size() > uriIndexSize) {
+                uriIndexComplete = false;
+                uriIndex.clear();
+                log.info("Uri больше {}, поиск по префиксу переведён на базу", uriIndexSize);
+            }
+        }
+    }
+}
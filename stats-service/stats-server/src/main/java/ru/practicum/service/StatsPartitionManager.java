@@ -0,0 +1,157 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.DatabaseDialect;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnJdbcStorage
+public class StatsPartitionManager {
+    private static final String PARTITION_PREFIX = "stats_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final List<String> DERIVED_TABLES = List.of("stats_minute", "stats_hour", "stats_sketch",
+            "stats_compacted");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseDialect dialect;
+    private final int daysAhead;
+    private final int retentionDays;
+    private final boolean detachExpired;
+    private final int retentionBatchSize;
+
+    public StatsPartitionManager(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 DatabaseDialect dialect,
+                                 @Value("${stats.partition.days-ahead:7}") int daysAhead,
+                                 @Value("${stats.partition.retention-days:0}") int retentionDays,
+                                 @Value("${stats.partition.retention-mode:drop}") String retentionMode,
+                                 @Value("${stats.partition.retention-batch-size:10000}") int retentionBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dialect = dialect;
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+        this.detachExpired = "detach".equalsIgnoreCase(retentionMode);
+        this.retentionBatchSize = retentionBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${stats.partition.cron:0 5 0 * * *}")
+    public void maintain() {
+        if (!dialect.isPostgres()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (retentionDays > 0) {
+            expirePartitions(today.minusDays(retentionDays));
+        }
+        for (int i = 0; i <= daysAhead; i++) {
+            createPartition(today.plusDays(i));
+        }
+        jdbcTemplate.queryForList("SELECT DISTINCT CAST(timestamp AS DATE) FROM stats_default", LocalDate.class)
+                .forEach(this::createPartition);
+    }
+
+    public void ensurePartitions(LocalDate from, LocalDate to) {
+        if (!dialect.isPostgres()) {
+            return;
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            createPartition(day);
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        if (retentionDays > 0 && day.isBefore(LocalDate.now().minusDays(retentionDays))) {
+            return;
+        }
+        String name = partitionName(day);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+            return;
+        }
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE %s (LIKE stats INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", name));
+                int count = jdbcTemplate.update(String.format(
+                        "WITH moved AS (DELETE FROM stats_default WHERE timestamp >= '%s' AND timestamp < '%s' " +
+                                "RETURNING id, app_id, uri_id, ip_id, timestamp) " +
+                                "INSERT INTO %s (id, app_id, uri_id, ip_id, timestamp) SELECT * FROM moved",
+                        day, day.plusDays(1), name));
+                jdbcTemplate.execute(String.format(
+                        "ALTER TABLE stats ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                        name, day, day.plusDays(1)));
+                return count;
+            });
+            if (moved != null && moved > 0) {
+                log.info("Посещения за {} перенесены из stats_default в секцию {}: {}", day, name, moved);
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось создать секцию {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void expirePartitions(LocalDate boundary) {
+        int expired = deleteExpired("stats_default", "timestamp", boundary.atStartOfDay());
+        if (expired > 0) {
+            log.info("Из stats_default удалено посещений по сроку хранения: {}", expired);
+        }
+        for (String table : DERIVED_TABLES) {
+            int deleted = deleteExpired(table, "bucket", boundary.atStartOfDay());
+            log.debug("Из {} удалено строк по сроку хранения: {}", table, deleted);
+        }
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'stats' AND c.relname LIKE 'stats\\_p%'",
+                String.class);
+        for (String name : partitions) {
+            LocalDate day = LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (day.plusDays(1).isAfter(boundary)) {
+                continue;
+            }
+            if (detachExpired) {
+                jdbcTemplate.execute("ALTER TABLE stats DETACH PARTITION " + name);
+                log.info("Секция {} отсоединена по сроку хранения", name);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Секция {} удалена по сроку хранения", name);
+            }
+        }
+    }
+
+    private int deleteExpired(String table, String column, LocalDateTime boundary) {
+        String sql = String.format("DELETE FROM %1$s WHERE ctid = ANY(ARRAY(" +
+                "SELECT ctid FROM %1$s WHERE %2$s < ? LIMIT ?))", table, column);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, boundary, retentionBatchSize);
+            total += deleted;
+        } while (deleted >= retentionBatchSize);
+        return total;
+    }
+
+    private String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
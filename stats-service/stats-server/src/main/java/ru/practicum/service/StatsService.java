@@ -1,14 +1,32 @@
 package ru.practicum.service;
 
 import ru.practicum.EndpointHitDto;
+import ru.practicum.TimeSeriesStatsDto;
 import ru.practicum.ViewStatsDto;
+import ru.practicum.trending.Trending;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 public interface StatsService {
 
-    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+    StatsStream getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                         boolean approximate);
+
+    List<ViewStatsDto> getTopStats(LocalDateTime start, LocalDateTime end, int limit, boolean unique);
+
+    List<TimeSeriesStatsDto> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                           ChronoUnit interval);
+
+    Trending getTrending(String window, int limit);
+
+    Map<Long, Long> getEventViews(List<Long> eventIds, boolean unique);
+
+    Double getUniqueErrorBound();
 
     void postHit(EndpointHitDto hit);
+
+    void postHits(List<EndpointHitDto> hits);
 }
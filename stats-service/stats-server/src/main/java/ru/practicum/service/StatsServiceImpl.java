@@ -1,21 +1,38 @@
 package ru.practicum.service;
 
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.EndpointHitDto;
+import ru.practicum.TimeSeriesStatsDto;
 import ru.practicum.ViewStatsDto;
+import ru.practicum.cache.StatsIntervalCache;
 import ru.practicum.exception.DatabaseException;
 import ru.practicum.exception.GeneralException;
+import ru.practicum.exception.OverloadException;
 import ru.practicum.exception.ValidationException;
-import ru.practicum.mapper.StatsMapper;
-import ru.practicum.model.Stats;
+import ru.practicum.hotwindow.HotWindowStore;
+import ru.practicum.ingest.HitIngestQueue;
+import ru.practicum.ingest.IngestThrottle;
+import ru.practicum.metrics.StatsMetrics;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.StatsEventRepository;
 import ru.practicum.repository.StatsRepository;
+import ru.practicum.trending.Trending;
+import ru.practicum.trending.TrendingTracker;
+import ru.practicum.util.IpAddresses;
+import ru.practicum.util.TimeBuckets;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class StatsServiceImpl implements StatsService {
@@ -25,29 +42,211 @@ public class StatsServiceImpl implements StatsService {
     @Autowired
     private StatsRepository statsRepository;
 
+    @Autowired
+    private StatsDictionary dictionary;
+
+    @Autowired
+    private HitWriter hitWriter;
+
+    @Autowired(required = false)
+    private HitIngestQueue hitIngestQueue;
+
+    @Autowired(required = false)
+    private IngestThrottle ingestThrottle;
+
+    @Autowired(required = false)
+    private UniqueSketchService sketchService;
+
+    @Autowired(required = false)
+    private HotWindowStore hotWindowStore;
+
+    @Autowired(required = false)
+    private StatsIntervalCache statsCache;
+
+    @Autowired(required = false)
+    private ParallelStatsExecutor parallelExecutor;
+
+    @Autowired(required = false)
+    private TrendingTracker trendingTracker;
+
+    @Autowired(required = false)
+    private StatsEventRepository eventRepository;
+
+    @Autowired
+    private StatsMetrics metrics;
+
+    @Value("${stats.timeseries.max-buckets:10000}")
+    private long maxTimeSeriesBuckets;
+
+    @Value("${stats.events.max-ids:1000}")
+    private int maxEventIds;
+
+    @Value("${stats.compaction.enabled:false}")
+    private boolean compactionEnabled;
+
+    @Value("${stats.compaction.after-days:7}")
+    private int compactionAfterDays;
+
+    @Value("${stats.compaction.bucket-unit:HOURS}")
+    private ChronoUnit compactionUnit;
+
     @Override
-    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
-        log.info("Получение статистики с параметрами: start={}, end={}, uris={}, unique={}", start, end, uris, unique);
+    public StatsStream getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                                boolean approximate) {
+        log.info("Получение статистики с параметрами: start={}, end={}, uris={}, unique={}, approximate={}",
+                start, end, uris, unique, approximate);
         validationDate(start, end);
+        validationCompactedRange(start, end);
+        List<Integer> uriIds;
         try {
-            if (unique) {
-                if (uris != null && !uris.isEmpty()) {
-                    return statsRepository.findAllStatsWithUniqueAndUris(start, end, uris);
-                } else {
-                    return statsRepository.findAllStatsWithUnique(start, end);
-                }
-            } else {
-                if (uris != null && !uris.isEmpty()) {
-                    List<ViewStatsDto> stat = statsRepository.findAllStatsWithUris(start, end, uris);
-                    return stat;
-                } else {
-                    return statsRepository.findAllStats(start, end);
-                }
-            }
+            uriIds = uris != null && !uris.isEmpty() ? dictionary.findUriIds(uris) : null;
         } catch (Exception e) {
             log.error("Ошибка при получении статистики: {}", e.getMessage());
             throw new DatabaseException("Ошибка при получении статистики: " + e.getMessage());
         }
+        if (uriIds != null && uriIds.isEmpty()) {
+            return consumer -> {
+            };
+        }
+        StatsQuery query = StatsQuery.builder()
+                .start(start)
+                .end(end)
+                .uriIds(uriIds)
+                .unique(unique)
+                .build();
+        boolean estimate = unique && approximate && sketchService != null;
+        Timer timer = metrics.queryTimer("stats", start, end, uriIds != null,
+                estimate ? "approximate" : String.valueOf(unique));
+        return consumer -> {
+            try {
+                timer.record(() -> {
+                    if (estimate) {
+                        sketchService.estimate(start, end, uriIds).forEach(consumer);
+                        return;
+                    }
+                    findAggregated(query).ifPresentOrElse(stats -> stats.forEach(consumer),
+                            () -> statsRepository.streamStats(query, consumer));
+                });
+            } catch (UncheckedIOException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Ошибка при получении статистики: {}", e.getMessage());
+                throw new DatabaseException("Ошибка при получении статистики: " + e.getMessage());
+            }
+        };
+    }
+
+    @Override
+    public List<ViewStatsDto> getTopStats(LocalDateTime start, LocalDateTime end, int limit, boolean unique) {
+        log.info("Получение популярных uri с параметрами: start={}, end={}, limit={}, unique={}",
+                start, end, limit, unique);
+        validationDate(start, end);
+        validationCompactedRange(start, end);
+        StatsQuery query = StatsQuery.builder()
+                .start(start)
+                .end(end)
+                .unique(unique)
+                .limit(limit)
+                .build();
+        Timer timer = metrics.queryTimer("top", start, end, false, String.valueOf(unique));
+        try {
+            return timer.record(() -> findAggregated(query).orElseGet(() -> statsRepository.findStats(query)));
+        } catch (Exception e) {
+            log.error("Ошибка при получении популярных uri: {}", e.getMessage());
+            throw new DatabaseException("Ошибка при получении популярных uri: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<TimeSeriesStatsDto> getTimeSeries(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                  ChronoUnit interval) {
+        log.info("Получение временного ряда с параметрами: start={}, end={}, uris={}, interval={}",
+                start, end, uris, interval);
+        validationDate(start, end);
+        validationCompactedRange(start, end);
+        if (compactionEnabled && interval.getDuration().compareTo(compactionUnit.getDuration()) < 0
+                && start.isBefore(compactionHorizon())) {
+            throw new ValidationException("Интервал временного ряда в уплотнённых данных не может быть меньше "
+                    + compactionUnit);
+        }
+        long buckets = interval.between(TimeBuckets.floor(start, interval), end) + 1;
+        if (buckets > maxTimeSeriesBuckets) {
+            throw new ValidationException("Слишком много интервалов во временном ряду: " + buckets
+                    + ", допустимо не более " + maxTimeSeriesBuckets);
+        }
+        try {
+            List<Integer> uriIds = uris != null && !uris.isEmpty() ? dictionary.findUriIds(uris) : null;
+            if (uriIds != null && uriIds.isEmpty()) {
+                return List.of();
+            }
+            StatsQuery query = StatsQuery.builder()
+                    .start(start)
+                    .end(end)
+                    .uriIds(uriIds)
+                    .build();
+            return metrics.queryTimer("timeseries", start, end, uriIds != null, "true").record(() -> {
+                if (hotWindowStore != null && hotWindowStore.covers(start)) {
+                    Optional<List<TimeSeriesStatsDto>> recent = hotWindowStore.findTimeSeries(interval, query);
+                    if (recent.isPresent()) {
+                        return recent.get();
+                    }
+                }
+                return statsRepository.findTimeSeries(interval, query);
+            });
+        } catch (Exception e) {
+            log.error("Ошибка при получении временного ряда: {}", e.getMessage());
+            throw new DatabaseException("Ошибка при получении временного ряда: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Trending getTrending(String window, int limit) {
+        log.info("Получение набирающих популярность uri: window={}, limit={}", window, limit);
+        if (trendingTracker == null) {
+            throw new GeneralException("Отслеживание популярных uri отключено");
+        }
+        return trendingTracker.find(window, limit).orElseThrow(() -> new ValidationException(
+                "Неподдерживаемое окно: " + window + ", допустимы " + trendingTracker.windows()));
+    }
+
+    @Override
+    public Map<Long, Long> getEventViews(List<Long> eventIds, boolean unique) {
+        log.info("Получение просмотров событий: ids={}, unique={}", eventIds, unique);
+        if (eventRepository == null) {
+            throw new GeneralException("Счётчики просмотров событий отключены");
+        }
+        List<Long> ids = eventIds.stream().distinct().toList();
+        if (ids.size() > maxEventIds) {
+            throw new ValidationException("Запрошено " + ids.size() + " событий, допустимо не более " + maxEventIds);
+        }
+        Map<Long, Long> views = new LinkedHashMap<>();
+        ids.forEach(id -> views.put(id, 0L));
+        if (!ids.isEmpty()) {
+            views.putAll(eventRepository.findViews(ids, unique));
+        }
+        return views;
+    }
+
+    private Optional<List<ViewStatsDto>> findAggregated(StatsQuery query) {
+        Optional<List<ViewStatsDto>> result = Optional.empty();
+        if (hotWindowStore != null && hotWindowStore.covers(query.getStart())) {
+            result = hotWindowStore.findStats(query);
+        }
+        if (result.isEmpty() && parallelExecutor != null && parallelExecutor.applies(query)) {
+            result = Optional.of(parallelExecutor.findStats(query));
+        }
+        if (result.isEmpty() && statsCache != null) {
+            result = statsCache.findStats(query);
+        }
+        if (result.isEmpty() && hotWindowStore != null) {
+            result = hotWindowStore.findStats(query);
+        }
+        return result;
+    }
+
+    @Override
+    public Double getUniqueErrorBound() {
+        return sketchService != null ? sketchService.getRelativeError() : null;
     }
 
     private void validationDate(LocalDateTime start, LocalDateTime end) {
@@ -56,16 +255,63 @@ public class StatsServiceImpl implements StatsService {
         }
     }
 
+    private void validationCompactedRange(LocalDateTime start, LocalDateTime end) {
+        if (!compactionEnabled) {
+            return;
+        }
+        LocalDateTime horizon = compactionHorizon();
+        if (start.isBefore(horizon) && !TimeBuckets.floor(start, compactionUnit).equals(start)) {
+            throw new ValidationException("Начало периода в уплотнённых данных должно совпадать с началом интервала "
+                    + compactionUnit);
+        }
+        LocalDateTime next = end.plusSeconds(1);
+        if (end.isBefore(horizon) && !TimeBuckets.floor(next, compactionUnit).equals(next)) {
+            throw new ValidationException("Конец периода в уплотнённых данных должен приходиться на последнюю "
+                    + "секунду интервала " + compactionUnit);
+        }
+    }
+
+    private LocalDateTime compactionHorizon() {
+        return TimeBuckets.floor(LocalDateTime.now().minusDays(compactionAfterDays), compactionUnit);
+    }
+
     @Override
-    @Transactional
     public void postHit(EndpointHitDto hitDto) {
         try {
-            Stats hit = StatsMapper.fromEndpointHitDtoToEndpointHit(hitDto);
-            log.info("Сохранение информации о посещении: {}", hit);
-            statsRepository.save(hit);
+            log.info("Сохранение информации о посещении: {}", hitDto);
+            saveHits(List.of(hitDto));
+        } catch (ValidationException | OverloadException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Ошибка при сохранении информации о посещении: {}", e.getMessage());
             throw new GeneralException("Ошибка при сохранении информации о посещении: " + e.getMessage());
         }
     }
+
+    @Override
+    public void postHits(List<EndpointHitDto> hitDtos) {
+        try {
+            log.info("Сохранение пакета посещений: {} шт.", hitDtos.size());
+            saveHits(hitDtos);
+        } catch (ValidationException | OverloadException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Ошибка при сохранении пакета посещений: {}", e.getMessage());
+            throw new GeneralException("Ошибка при сохранении пакета посещений: " + e.getMessage());
+        }
+    }
+
+    private void saveHits(List<EndpointHitDto> hitDtos) {
+        hitDtos.forEach(hitDto -> IpAddresses.toBytes(hitDto.getIp()));
+        if (hitIngestQueue != null) {
+            if (ingestThrottle != null) {
+                ingestThrottle.checkQueue(hitIngestQueue.size(), hitIngestQueue.capacity(), hitDtos.size());
+            }
+            hitIngestQueue.offer(hitDtos);
+        } else if (ingestThrottle != null) {
+            ingestThrottle.write(hitDtos.size(), () -> hitWriter.write(hitDtos));
+        } else {
+            hitWriter.write(hitDtos);
+        }
+    }
 }
\ No newline at end of file
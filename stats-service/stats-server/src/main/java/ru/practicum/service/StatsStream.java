@@ -0,0 +1,10 @@
+package ru.practicum.service;
+
+import ru.practicum.ViewStatsDto;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface StatsStream {
+    void forEach(Consumer<ViewStatsDto> consumer);
+}
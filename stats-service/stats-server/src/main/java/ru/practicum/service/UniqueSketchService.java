@@ -0,0 +1,174 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.Stats;
+import ru.practicum.repository.ConditionalOnJdbcStorage;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.repository.StatsSketchRepository;
+import ru.practicum.sketch.HyperLogLog;
+import ru.practicum.sketch.SketchKey;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "stats.sketch.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnJdbcStorage
+public class UniqueSketchService {
+    private final StatsSketchRepository sketchRepository;
+    private final StatsRepository statsRepository;
+    private final StatsDictionary dictionary;
+    private final TransactionTemplate transactionTemplate;
+    private final int precision;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private volatile Map<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+    private volatile Map<SketchKey, HyperLogLog> flushing = Map.of();
+
+    public UniqueSketchService(StatsSketchRepository sketchRepository,
+                               StatsRepository statsRepository,
+                               StatsDictionary dictionary,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${stats.sketch.precision:12}") int precision) {
+        this.sketchRepository = sketchRepository;
+        this.statsRepository = statsRepository;
+        this.dictionary = dictionary;
+        this.transactionTemplate = transactionTemplate;
+        this.precision = precision;
+    }
+
+    public double getRelativeError() {
+        return HyperLogLog.relativeError(precision);
+    }
+
+    public void add(List<Stats> hits) {
+        swapLock.readLock().lock();
+        try {
+            for (Stats hit : hits) {
+                SketchKey key = new SketchKey(hit.getAppId(), hit.getUriId(),
+                        TimeBuckets.floor(hit.getTimestamp(), ChronoUnit.HOURS));
+                HyperLogLog sketch = pending.computeIfAbsent(key, k -> new HyperLogLog(precision));
+                synchronized (sketch) {
+                    sketch.add(HyperLogLog.hash(hit.getIpId()));
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public List<ViewStatsDto> estimate(LocalDateTime start, LocalDateTime end, List<Integer> uriIds) {
+        Map<AppUri, HyperLogLog> merged = new HashMap<>();
+        LocalDateTime hourStart = TimeBuckets.ceil(start, ChronoUnit.HOURS);
+        LocalDateTime hourEnd = TimeBuckets.floor(end, ChronoUnit.HOURS);
+        if (hourStart.isBefore(hourEnd)) {
+            sketchRepository.forEachSketch(hourStart, hourEnd, uriIds,
+                    (key, sketch) -> mergeInto(merged, key, sketch));
+            Set<Integer> uriFilter = uriIds == null ? null : new HashSet<>(uriIds);
+            for (Map<SketchKey, HyperLogLog> buffered : List.of(flushing, pending)) {
+                buffered.forEach((key, sketch) -> {
+                    if (!key.bucket().isBefore(hourStart) && key.bucket().isBefore(hourEnd)
+                            && (uriFilter == null || uriFilter.contains(key.uriId()))) {
+                        synchronized (sketch) {
+                            mergeInto(merged, key, sketch);
+                        }
+                    }
+                });
+            }
+            addRawIps(merged, start, hourStart, false, uriIds);
+            addRawIps(merged, hourEnd, end, true, uriIds);
+        } else {
+            addRawIps(merged, start, end, true, uriIds);
+        }
+        Map<Integer, String> apps = dictionary.appNames(merged.keySet().stream().map(AppUri::appId).toList());
+        Map<Integer, String> uris = dictionary.uris(merged.keySet().stream().map(AppUri::uriId).toList());
+        return merged.entrySet().stream()
+                .map(entry -> new ViewStatsDto(apps.get(entry.getKey().appId()), uris.get(entry.getKey().uriId()),
+                        entry.getValue().estimate()))
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.sketch.flush-interval-ms:10000}")
+    public void flush() {
+        swapLock.writeLock().lock();
+        try {
+            flushing = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        Map<SketchKey, HyperLogLog> batch = flushing;
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            log.debug("Сохранено скетчей уникальных посещений: {}", batch.size());
+        } catch (Exception e) {
+            log.error("Ошибка при сохранении скетчей уникальных посещений: {}", e.getMessage());
+            swapLock.readLock().lock();
+            try {
+                batch.forEach((key, sketch) -> pending.merge(key, sketch, (current, failed) -> {
+                    synchronized (current) {
+                        current.merge(failed);
+                    }
+                    return current;
+                }));
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        } finally {
+            flushing = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<SketchKey, HyperLogLog> batch) {
+        List<SketchKey> keys = batch.keySet().stream().sorted(StatsSketchRepository.KEY_ORDER).toList();
+        Set<SketchKey> inserted = sketchRepository.insertMissing(keys, batch);
+        List<SketchKey> existing = keys.stream().filter(key -> !inserted.contains(key)).toList();
+        if (existing.isEmpty()) {
+            return;
+        }
+        Map<SketchKey, HyperLogLog> stored = sketchRepository.lockAll(existing);
+        stored.forEach((key, sketch) -> sketch.merge(batch.get(key)));
+        sketchRepository.updateAll(stored);
+    }
+
+    private void addRawIps(Map<AppUri, HyperLogLog> merged, LocalDateTime from, LocalDateTime to,
+                           boolean inclusive, List<Integer> uriIds) {
+        statsRepository.forEachDistinctIp(from, to, inclusive, uriIds, (appId, uriId, ipId) ->
+                merged.computeIfAbsent(new AppUri(appId, uriId), k -> new HyperLogLog(precision))
+                        .add(HyperLogLog.hash(ipId)));
+    }
+
+    private void mergeInto(Map<AppUri, HyperLogLog> merged, SketchKey key, HyperLogLog sketch) {
+        merged.computeIfAbsent(new AppUri(key.appId(), key.uriId()), k -> new HyperLogLog(precision)).merge(sketch);
+    }
+
+    private record AppUri(int appId, int uriId) {
+    }
+}
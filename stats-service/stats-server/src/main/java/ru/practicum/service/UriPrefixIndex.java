@@ -0,0 +1,24 @@
+package ru.practicum.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+class UriPrefixIndex {
+    private final ConcurrentSkipListMap<String, Integer> uris = new ConcurrentSkipListMap<>();
+
+    void putAll(Map<String, Integer> values) {
+        uris.putAll(values);
+    }
+
+    Map<String, Integer> withPrefix(String prefix) {
+        return prefix.isEmpty() ? uris : uris.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    int size() {
+        return uris.size();
+    }
+
+    void clear() {
+        uris.clear();
+    }
+}
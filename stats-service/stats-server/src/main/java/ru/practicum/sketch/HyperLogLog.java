@@ -0,0 +1,134 @@
+package ru.practicum.sketch;
+
+import java.nio.charset.StandardCharsets;
+
+public class HyperLogLog {
+    private static final long MURMUR_M = 0xc6a4a7935bd1e995L;
+    private static final int MURMUR_R = 47;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Точность HyperLogLog должна быть от 4 до 16: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        int precision = bytes[0];
+        byte[] registers = new byte[1 << precision];
+        System.arraycopy(bytes, 1, registers, 0, registers.length);
+        return new HyperLogLog(precision, registers);
+    }
+
+    public static double relativeError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public static long hash(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static long hash(String value) {
+        return hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long hash(byte[] data) {
+        long h = 0x9747b28cL ^ (data.length * MURMUR_M);
+        int blocks = data.length / 8;
+        for (int i = 0; i < blocks; i++) {
+            long k = 0;
+            for (int j = 7; j >= 0; j--) {
+                k = (k << 8) | (data[i * 8 + j] & 0xffL);
+            }
+            k *= MURMUR_M;
+            k ^= k >>> MURMUR_R;
+            k *= MURMUR_M;
+            h ^= k;
+            h *= MURMUR_M;
+        }
+        int tail = blocks * 8;
+        int remaining = data.length - tail;
+        if (remaining > 0) {
+            for (int j = remaining - 1; j >= 0; j--) {
+                h ^= (data[tail + j] & 0xffL) << (8 * j);
+            }
+            h *= MURMUR_M;
+        }
+        h ^= h >>> MURMUR_R;
+        h *= MURMUR_M;
+        h ^= h >>> MURMUR_R;
+        return h;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Нельзя объединить HyperLogLog разной точности: "
+                    + precision + " и " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
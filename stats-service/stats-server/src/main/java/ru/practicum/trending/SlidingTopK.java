@@ -0,0 +1,67 @@
+package ru.practicum.trending;
+
+import ru.practicum.aggregate.AppUriKey;
+import ru.practicum.model.Stats;
+import ru.practicum.util.TimeBuckets;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class SlidingTopK {
+    private final long slotMillis;
+    private final int capacity;
+    private final SpaceSaving[] slots;
+    private final long[] epochs;
+
+    SlidingTopK(long windowMillis, int slotCount, int capacity) {
+        this.slotMillis = Math.max(1, windowMillis / slotCount);
+        this.capacity = capacity;
+        this.slots = new SpaceSaving[slotCount];
+        this.epochs = new long[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new SpaceSaving(capacity);
+            epochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    void add(List<Stats> hits, long now) {
+        long current = Math.floorDiv(now, slotMillis);
+        Map<Long, Map<Long, long[]>> batch = new HashMap<>();
+        for (Stats hit : hits) {
+            long epoch = Math.floorDiv(TimeBuckets.toEpochMilli(hit.getTimestamp()), slotMillis);
+            if (epoch > current - slots.length && epoch <= current) {
+                batch.computeIfAbsent(epoch, k -> new HashMap<>())
+                        .computeIfAbsent(AppUriKey.of(hit.getAppId(), hit.getUriId()), k -> new long[1])[0]++;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            batch.forEach((epoch, counts) -> {
+                int index = (int) Math.floorMod(epoch, (long) slots.length);
+                if (epochs[index] < epoch) {
+                    slots[index] = new SpaceSaving(capacity);
+                    epochs[index] = epoch;
+                } else if (epochs[index] > epoch) {
+                    return;
+                }
+                SpaceSaving slot = slots[index];
+                counts.forEach((key, count) -> slot.offer(key, count[0]));
+            });
+        }
+    }
+
+    synchronized long collect(Map<Long, long[]> merged, long now) {
+        long current = Math.floorDiv(now, slotMillis);
+        long total = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (epochs[i] > current - slots.length && epochs[i] <= current) {
+                slots[i].mergeInto(merged);
+                total += slots[i].total();
+            }
+        }
+        return total;
+    }
+}
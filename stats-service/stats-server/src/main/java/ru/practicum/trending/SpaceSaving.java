@@ -0,0 +1,59 @@
+package ru.practicum.trending;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+class SpaceSaving {
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong((Counter counter) -> counter.count)
+            .thenComparingLong(counter -> counter.key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+    private long total;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void offer(long key, long count) {
+        total += count;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            byCount.add(counter);
+            return;
+        }
+        long base = 0;
+        if (counters.size() >= capacity) {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.key);
+            base = evicted.count;
+        }
+        counter = new Counter(key, base + count);
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    void mergeInto(Map<Long, long[]> merged) {
+        counters.values().forEach(counter ->
+                merged.computeIfAbsent(counter.key, k -> new long[1])[0] += counter.count);
+    }
+
+    long total() {
+        return total;
+    }
+
+    private static final class Counter {
+        private final long key;
+        private long count;
+
+        private Counter(long key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.trending;
+
+import ru.practicum.ViewStatsDto;
+
+import java.util.List;
+
+public record Trending(List<ViewStatsDto> stats, long windowHits, double errorBound) {
+}
@@ -0,0 +1,65 @@
+package ru.practicum.trending;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.aggregate.AppUriKey;
+import ru.practicum.aggregate.TopK;
+import ru.practicum.model.Stats;
+import ru.practicum.service.StatsDictionary;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "stats.trending.enabled", havingValue = "true", matchIfMissing = true)
+public class TrendingTracker {
+    private final StatsDictionary dictionary;
+    private final int capacity;
+    private final Map<String, SlidingTopK> windows = new LinkedHashMap<>();
+
+    public TrendingTracker(StatsDictionary dictionary,
+                           @Value("${stats.trending.capacity:1000}") int capacity,
+                           @Value("${stats.trending.slots:12}") int slots) {
+        this.dictionary = dictionary;
+        this.capacity = capacity;
+        windows.put("5m", new SlidingTopK(Duration.ofMinutes(5).toMillis(), slots, capacity));
+        windows.put("1h", new SlidingTopK(Duration.ofHours(1).toMillis(), slots, capacity));
+        windows.put("24h", new SlidingTopK(Duration.ofHours(24).toMillis(), slots, capacity));
+    }
+
+    public Set<String> windows() {
+        return windows.keySet();
+    }
+
+    public void add(List<Stats> hits) {
+        long now = TimeBuckets.toEpochMilli(LocalDateTime.now());
+        windows.values().forEach(window -> window.add(hits, now));
+    }
+
+    public Optional<Trending> find(String window, int limit) {
+        SlidingTopK topK = windows.get(window);
+        if (topK == null) {
+            return Optional.empty();
+        }
+        Map<Long, long[]> merged = new HashMap<>();
+        long total = topK.collect(merged, TimeBuckets.toEpochMilli(LocalDateTime.now()));
+        List<Long> keys = TopK.select(merged.keySet(), (a, b) -> Long.compare(merged.get(a)[0], merged.get(b)[0]),
+                limit);
+        Map<Integer, String> apps = dictionary.appNames(keys.stream().map(AppUriKey::appId).toList());
+        Map<Integer, String> uris = dictionary.uris(keys.stream().map(AppUriKey::uriId).toList());
+        List<ViewStatsDto> stats = keys.stream()
+                .map(key -> new ViewStatsDto(apps.get(AppUriKey.appId(key)), uris.get(AppUriKey.uriId(key)),
+                        merged.get(key)[0]))
+                .toList();
+        return Optional.of(new Trending(stats, total, 1.0 / capacity));
+    }
+}
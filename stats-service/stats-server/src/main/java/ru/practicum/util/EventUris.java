@@ -0,0 +1,28 @@
+package ru.practicum.util;
+
+public final class EventUris {
+    private static final String PREFIX = "/events/";
+    private static final int MAX_ID_DIGITS = 18;
+
+    private EventUris() {
+    }
+
+    public static Long parseEventId(String uri) {
+        if (uri == null || !uri.startsWith(PREFIX)) {
+            return null;
+        }
+        int length = uri.length() - PREFIX.length();
+        if (length == 0 || length > MAX_ID_DIGITS) {
+            return null;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
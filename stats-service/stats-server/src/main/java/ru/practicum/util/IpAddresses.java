@@ -0,0 +1,129 @@
+package ru.practicum.util;
+
+import ru.practicum.exception.ValidationException;
+
+public final class IpAddresses {
+    private static final int IPV4_LENGTH = 4;
+    private static final int IPV6_LENGTH = 16;
+
+    private IpAddresses() {
+    }
+
+    public static byte[] toBytes(String ip) {
+        if (ip.indexOf(':') >= 0) {
+            return parseIpv6(ip);
+        }
+        byte[] address = new byte[IPV4_LENGTH];
+        parseIpv4(ip, ip, address, 0);
+        return address;
+    }
+
+    private static byte[] parseIpv6(String ip) {
+        byte[] address = new byte[IPV6_LENGTH];
+        int gap = ip.indexOf("::");
+        if (gap >= 0 && ip.indexOf("::", gap + 1) >= 0) {
+            throw invalid(ip);
+        }
+        if (gap < 0) {
+            if (parseGroups(ip, ip, address, 0, true) != IPV6_LENGTH) {
+                throw invalid(ip);
+            }
+        } else {
+            byte[] tail = new byte[IPV6_LENGTH];
+            int head = gap == 0 ? 0 : parseGroups(ip.substring(0, gap), ip, address, 0, false);
+            int tailLength = gap + 2 == ip.length() ? 0 : parseGroups(ip.substring(gap + 2), ip, tail, 0, true);
+            if (head + tailLength > IPV6_LENGTH - 2) {
+                throw invalid(ip);
+            }
+            System.arraycopy(tail, 0, address, IPV6_LENGTH - tailLength, tailLength);
+        }
+        return isIpv4Mapped(address) ? new byte[]{address[12], address[13], address[14], address[15]} : address;
+    }
+
+    private static int parseGroups(String groups, String ip, byte[] address, int offset, boolean allowIpv4) {
+        String[] parts = groups.split(":", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (allowIpv4 && i == parts.length - 1 && part.indexOf('.') >= 0) {
+                if (offset + IPV4_LENGTH > IPV6_LENGTH) {
+                    throw invalid(ip);
+                }
+                parseIpv4(part, ip, address, offset);
+                offset += IPV4_LENGTH;
+                continue;
+            }
+            if (offset + 2 > IPV6_LENGTH) {
+                throw invalid(ip);
+            }
+            int value = parseHextet(part, ip);
+            address[offset++] = (byte) (value >> 8);
+            address[offset++] = (byte) value;
+        }
+        return offset;
+    }
+
+    private static int parseHextet(String part, String ip) {
+        if (part.isEmpty() || part.length() > 4) {
+            throw invalid(ip);
+        }
+        int value = 0;
+        for (int i = 0; i < part.length(); i++) {
+            value = value << 4 | hexDigit(part.charAt(i), ip);
+        }
+        return value;
+    }
+
+    private static int hexDigit(char c, String ip) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw invalid(ip);
+    }
+
+    private static void parseIpv4(String value, String ip, byte[] address, int offset) {
+        String[] parts = value.split("\\.", -1);
+        if (parts.length != IPV4_LENGTH) {
+            throw invalid(ip);
+        }
+        for (int i = 0; i < IPV4_LENGTH; i++) {
+            address[offset + i] = (byte) parseOctet(parts[i], ip);
+        }
+    }
+
+    private static int parseOctet(String part, String ip) {
+        if (part.isEmpty() || part.length() > 3) {
+            throw invalid(ip);
+        }
+        int value = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalid(ip);
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (value > 255) {
+            throw invalid(ip);
+        }
+        return value;
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+
+    private static ValidationException invalid(String ip) {
+        return new ValidationException("Некорректный IP-адрес: " + ip);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.util;
+
+import java.util.regex.Pattern;
+
+public final class UriPatterns {
+    public static final char WILDCARD = '*';
+
+    private UriPatterns() {
+    }
+
+    public static boolean isPattern(String uri) {
+        return uri.indexOf(WILDCARD) >= 0;
+    }
+
+    public static Pattern toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int from = 0;
+        for (int i = glob.indexOf(WILDCARD); i >= 0; i = glob.indexOf(WILDCARD, from)) {
+            regex.append(Pattern.quote(glob.substring(from, i))).append(".*");
+            from = i + 1;
+        }
+        return Pattern.compile(regex.append(Pattern.quote(glob.substring(from))).toString(), Pattern.DOTALL);
+    }
+
+    public static String toLike(String glob) {
+        return glob.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_").replace(WILDCARD, '%');
+    }
+}
@@ -0,0 +1,12 @@
+DROP TABLE IF EXISTS stats;
+
+CREATE TABLE IF NOT EXISTS stats
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app_id      INTEGER NOT NULL,
+    uri_id      INTEGER NOT NULL,
+    ip_id       INTEGER NOT NULL,
+    timestamp  TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS stats_uri_timestamp_idx ON stats (uri_id, timestamp, ip_id, app_id);
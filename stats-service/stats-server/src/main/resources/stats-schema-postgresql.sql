@@ -0,0 +1,17 @@
+DROP TABLE IF EXISTS stats CASCADE;
+
+CREATE TABLE IF NOT EXISTS stats
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    app_id      INTEGER NOT NULL,
+    uri_id      INTEGER NOT NULL,
+    ip_id       INTEGER NOT NULL,
+    timestamp  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS stats_default PARTITION OF stats DEFAULT;
+
+CREATE INDEX IF NOT EXISTS stats_uri_timestamp_idx ON stats (uri_id, timestamp) INCLUDE (ip_id, app_id);
+
+CREATE INDEX IF NOT EXISTS stats_uri_prefix_idx ON stats_uri (uri varchar_pattern_ops);
@@ -1,10 +1,105 @@
-DROP TABLE IF EXISTS stats;
+DROP TABLE IF EXISTS stats_app;
 
-CREATE TABLE IF NOT EXISTS stats
+CREATE TABLE IF NOT EXISTS stats_app
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    app         VARCHAR(64) NOT NULL,
-    uri         VARCHAR(256) NOT NULL,
-    ip          VARCHAR(64) NOT NULL,
-    timestamp  TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(64) NOT NULL UNIQUE
+);
+
+DROP TABLE IF EXISTS stats_uri;
+
+CREATE TABLE IF NOT EXISTS stats_uri
+(
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    uri     VARCHAR(256) NOT NULL UNIQUE
+);
+
+DROP TABLE IF EXISTS stats_ip;
+
+CREATE TABLE IF NOT EXISTS stats_ip
+(
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    address BYTEA NOT NULL UNIQUE
+);
+
+DROP TABLE IF EXISTS stats_minute;
+
+CREATE TABLE IF NOT EXISTS stats_minute
+(
+    app_id  INTEGER NOT NULL,
+    uri_id  INTEGER NOT NULL,
+    bucket  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits    BIGINT NOT NULL,
+    PRIMARY KEY (uri_id, bucket, app_id)
+);
+
+CREATE INDEX IF NOT EXISTS stats_minute_bucket_idx ON stats_minute (bucket);
+
+DROP TABLE IF EXISTS stats_hour;
+
+CREATE TABLE IF NOT EXISTS stats_hour
+(
+    app_id  INTEGER NOT NULL,
+    uri_id  INTEGER NOT NULL,
+    bucket  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits    BIGINT NOT NULL,
+    PRIMARY KEY (uri_id, bucket, app_id)
+);
+
+CREATE INDEX IF NOT EXISTS stats_hour_bucket_idx ON stats_hour (bucket);
+
+
+DROP TABLE IF EXISTS stats_sketch;
+
+CREATE TABLE IF NOT EXISTS stats_sketch
+(
+    app_id      INTEGER NOT NULL,
+    uri_id      INTEGER NOT NULL,
+    bucket      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    registers   BYTEA NOT NULL,
+    PRIMARY KEY (uri_id, bucket, app_id)
+);
+
+CREATE INDEX IF NOT EXISTS stats_sketch_bucket_idx ON stats_sketch (bucket);
+
+DROP TABLE IF EXISTS stats_compacted;
+
+CREATE TABLE IF NOT EXISTS stats_compacted
+(
+    app_id  INTEGER NOT NULL,
+    uri_id  INTEGER NOT NULL,
+    ip_id   INTEGER NOT NULL,
+    bucket  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    hits    BIGINT NOT NULL,
+    PRIMARY KEY (uri_id, bucket, app_id, ip_id)
+);
+
+CREATE INDEX IF NOT EXISTS stats_compacted_bucket_idx ON stats_compacted (bucket);
+
+DROP TABLE IF EXISTS stats_hit_id;
+
+CREATE TABLE IF NOT EXISTS stats_hit_id
+(
+    hit_id      VARCHAR(64) NOT NULL PRIMARY KEY,
+    received    TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS stats_hit_id_received_idx ON stats_hit_id (received);
+
+DROP TABLE IF EXISTS stats_event;
+
+CREATE TABLE IF NOT EXISTS stats_event
+(
+    event_id    BIGINT NOT NULL PRIMARY KEY,
+    hits        BIGINT NOT NULL,
+    unique_hits BIGINT NOT NULL
+);
+
+DROP TABLE IF EXISTS stats_event_ip;
+
+CREATE TABLE IF NOT EXISTS stats_event_ip
+(
+    event_id    BIGINT NOT NULL,
+    ip_id       INTEGER NOT NULL,
+    PRIMARY KEY (event_id, ip_id)
+);
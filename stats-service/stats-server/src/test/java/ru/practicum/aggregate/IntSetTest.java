@@ -0,0 +1,100 @@
+package ru.practicum.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntSetTest {
+
+    @Test
+    void ignoresDuplicatesAndKeepsZero() {
+        IntSet set = new IntSet();
+
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(7)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.add(7)).isFalse();
+
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.toArray()).containsExactlyInAnyOrder(0, 7);
+    }
+
+    @Test
+    void switchesDenseValuesToBitmap() {
+        IntSet set = new IntSet();
+        IntStream.range(0, 1_000).forEach(set::add);
+
+        assertThat(set.usesBitmap()).isTrue();
+        assertThat(set.size()).isEqualTo(1_000);
+        assertThat(IntStream.range(0, 1_000)).allMatch(set::contains);
+        assertThat(set.contains(1_000)).isFalse();
+    }
+
+    @Test
+    void fallsBackToTableWhenSparseValueArrivesInBitmap() {
+        IntSet set = new IntSet();
+        IntStream.range(0, 1_000).forEach(set::add);
+
+        assertThat(set.add(Integer.MAX_VALUE - 1)).isTrue();
+
+        assertThat(set.usesBitmap()).isFalse();
+        assertThat(set.size()).isEqualTo(1_001);
+        assertThat(set.contains(Integer.MAX_VALUE - 1)).isTrue();
+        assertThat(IntStream.range(0, 1_000)).allMatch(set::contains);
+    }
+
+    @Test
+    void growsBitmapWhileValuesStayDense() {
+        IntSet set = new IntSet();
+        IntStream.range(0, 1_000).forEach(set::add);
+        IntStream.range(1_000, 3_000).forEach(set::add);
+
+        assertThat(set.usesBitmap()).isTrue();
+        assertThat(set.size()).isEqualTo(3_000);
+    }
+
+    @Test
+    void fallsBackToTableForNegativeValue() {
+        IntSet set = new IntSet();
+        IntStream.range(0, 100).forEach(set::add);
+
+        set.add(-5);
+
+        assertThat(set.usesBitmap()).isFalse();
+        assertThat(set.contains(-5)).isTrue();
+        assertThat(set.size()).isEqualTo(101);
+    }
+
+    @Test
+    void matchesHashSetOnRandomValues() {
+        Random random = new Random(42);
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            int value = i % 3 == 0 ? random.nextInt() : random.nextInt(20_000);
+            assertThat(set.add(value)).isEqualTo(expected.add(value));
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(Arrays.stream(set.toArray()).boxed().toList()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void addAllMergesSets() {
+        IntSet left = new IntSet();
+        IntSet right = new IntSet();
+        IntStream.range(0, 500).forEach(left::add);
+        IntStream.range(250, 750).forEach(right::add);
+
+        left.addAll(right);
+
+        assertThat(left.size()).isEqualTo(750);
+    }
+}
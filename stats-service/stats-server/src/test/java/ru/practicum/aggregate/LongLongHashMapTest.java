@@ -0,0 +1,70 @@
+package ru.practicum.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongHashMapTest {
+
+    @Test
+    void storesZeroKeySeparately() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        map.put(0L, 5L);
+        map.addTo(0L, 2L);
+
+        assertThat(map.get(0L, -1L)).isEqualTo(7L);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsDefaultForMissingKey() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(1L, 10L);
+
+        assertThat(map.get(2L, -1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    void addToReturnsNewValue() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertThat(map.addTo(3L, 4L)).isEqualTo(4L);
+        assertThat(map.addTo(3L, 4L)).isEqualTo(8L);
+    }
+
+    @Test
+    void matchesHashMapAcrossRehashes() {
+        Random random = new Random(7);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(20_000) - 10_000L << 32 | random.nextInt(8);
+            map.addTo(key, 1);
+            expected.merge(key, 1L, Long::sum);
+        }
+
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void clearRemovesAllEntries() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(0L, 1L);
+        map.put(42L, 1L);
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.get(42L, -1L)).isEqualTo(-1L);
+        assertThat(map.get(0L, -1L)).isEqualTo(-1L);
+    }
+}
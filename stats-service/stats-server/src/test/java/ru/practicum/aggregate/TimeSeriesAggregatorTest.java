@@ -0,0 +1,72 @@
+package ru.practicum.aggregate;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.TimeSeriesStatsDto;
+import ru.practicum.model.DictionaryTable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TimeSeriesAggregatorTest {
+
+    @Test
+    void groupsHitsByBucketInTimeOrderAndByHitsWithinBucket() {
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(ChronoUnit.HOURS);
+        long tenOClock = millis(LocalDateTime.of(2024, 1, 1, 10, 0));
+        long elevenOClock = millis(LocalDateTime.of(2024, 1, 1, 11, 0));
+
+        aggregator.add(elevenOClock + 5_000, 1, 1, 7);
+        aggregator.add(tenOClock + 1_000, 1, 1, 7);
+        aggregator.add(tenOClock + 2_000, 1, 2, 7);
+        aggregator.add(tenOClock + 3_000, 1, 2, 8);
+        aggregator.add(tenOClock + 4_000, 1, 2, 8);
+        aggregator.add(elevenOClock - 1, 2, 1, 9);
+        aggregator.add(elevenOClock - 2, 2, 1, 9);
+
+        List<TimeSeriesStatsDto> series = aggregator.toTimeSeries(TimeSeriesAggregatorTest::names);
+
+        assertThat(series)
+                .extracting(TimeSeriesStatsDto::getBucket, TimeSeriesStatsDto::getApp, TimeSeriesStatsDto::getUri,
+                        TimeSeriesStatsDto::getHits, TimeSeriesStatsDto::getUniqueHits)
+                .containsExactly(
+                        tuple(LocalDateTime.of(2024, 1, 1, 10, 0), "app1", "/uri2", 3L, 2L),
+                        tuple(LocalDateTime.of(2024, 1, 1, 10, 0), "app2", "/uri1", 2L, 1L),
+                        tuple(LocalDateTime.of(2024, 1, 1, 10, 0), "app1", "/uri1", 1L, 1L),
+                        tuple(LocalDateTime.of(2024, 1, 1, 11, 0), "app1", "/uri1", 1L, 1L));
+    }
+
+    @Test
+    void keepsBucketsApartWhenManyKeysAreAdded() {
+        TimeSeriesAggregator aggregator = new TimeSeriesAggregator(ChronoUnit.MINUTES);
+
+        for (int minute = 0; minute < 40; minute++) {
+            for (int uri = 0; uri < 50; uri++) {
+                aggregator.add(minute * 60_000L + uri, 1, uri, uri % 3);
+            }
+        }
+
+        List<TimeSeriesStatsDto> series = aggregator.toTimeSeries(TimeSeriesAggregatorTest::names);
+
+        assertThat(series).hasSize(2_000);
+        assertThat(series).allSatisfy(stats -> assertThat(stats.getHits()).isEqualTo(1L));
+        assertThat(series).extracting(TimeSeriesStatsDto::getBucket).isSorted();
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static Map<Integer, String> names(DictionaryTable table, Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        ids.forEach(id -> names.put(id, table == DictionaryTable.APP ? "app" + id : "/uri" + id));
+        return names;
+    }
+}
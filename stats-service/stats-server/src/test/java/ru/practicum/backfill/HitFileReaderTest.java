@@ -0,0 +1,103 @@
+package ru.practicum.backfill;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HitFileReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void readsCsvSkippingHeaderAndBlankLines() throws IOException {
+        List<EndpointHitDto> hits = csv("""
+                app,uri,ip,timestamp
+                ewm-main-service,/events/1,192.168.0.1,2024-01-01 10:00:00
+
+                ewm-main-service,/events,::1,2024-01-01 10:00:01
+                """).read(10);
+
+        assertThat(hits).hasSize(2);
+        assertThat(hits.get(0).getApp()).isEqualTo("ewm-main-service");
+        assertThat(hits.get(0).getUri()).isEqualTo("/events/1");
+        assertThat(hits.get(0).getIp()).isEqualTo("192.168.0.1");
+        assertThat(hits.get(0).getTimestamp()).isEqualTo(LocalDateTime.of(2024, 1, 1, 10, 0, 0));
+        assertThat(hits.get(1).getIp()).isEqualTo("::1");
+    }
+
+    @Test
+    void readsQuotedFieldsWithCommasAndEscapedQuotes() throws IOException {
+        List<EndpointHitDto> hits = csv("\"ewm, main\",\"/search?q=\"\"a,b\"\"\",10.0.0.1,\"2024-01-01 10:00:00\"\n")
+                .read(10);
+
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).getApp()).isEqualTo("ewm, main");
+        assertThat(hits.get(0).getUri()).isEqualTo("/search?q=\"a,b\"");
+    }
+
+    @Test
+    void readsInChunks() throws IOException {
+        HitFileReader reader = csv("""
+                ewm,/a,10.0.0.1,2024-01-01 10:00:00
+                ewm,/b,10.0.0.2,2024-01-01 10:00:00
+                ewm,/c,10.0.0.3,2024-01-01 10:00:00
+                """);
+
+        assertThat(reader.read(2)).extracting(EndpointHitDto::getUri).containsExactly("/a", "/b");
+        assertThat(reader.read(2)).extracting(EndpointHitDto::getUri).containsExactly("/c");
+        assertThat(reader.read(2)).isEmpty();
+    }
+
+    @Test
+    void reportsLineOfWrongColumnCount() {
+        HitFileReader reader = csv("""
+                app,uri,ip,timestamp
+                ewm,/a,10.0.0.1,2024-01-01 10:00:00
+                ewm,/b,10.0.0.2
+                """);
+
+        assertThatThrownBy(() -> reader.read(10))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Строка 3:");
+    }
+
+    @Test
+    void rejectsUnclosedQuote() {
+        assertThatThrownBy(() -> csv("ewm,\"/a,10.0.0.1,2024-01-01 10:00:00\n").read(10))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("кавычки");
+    }
+
+    @Test
+    void rejectsBadDateAndAddress() {
+        assertThatThrownBy(() -> csv("ewm,/a,10.0.0.1,2024-01-01T10:00:00\n").read(10))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("дата");
+        assertThatThrownBy(() -> csv("ewm,/a,example.com,2024-01-01 10:00:00\n").read(10))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Строка 1:");
+    }
+
+    @Test
+    void readsNdjson() throws IOException {
+        HitFileReader reader = new HitFileReader(new BufferedReader(new StringReader("""
+                {"app":"app","uri":"/a","ip":"10.0.0.1","timestamp":"2024-01-01 10:00:00"}
+                """)), HitFileFormat.NDJSON, objectMapper);
+
+        assertThat(reader.read(10)).extracting(EndpointHitDto::getUri).containsExactly("/a");
+    }
+
+    private HitFileReader csv(String content) {
+        return new HitFileReader(new BufferedReader(new StringReader(content)), HitFileFormat.CSV, objectMapper);
+    }
+}
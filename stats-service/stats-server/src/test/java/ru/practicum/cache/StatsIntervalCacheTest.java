@@ -0,0 +1,147 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.DictionaryTable;
+import ru.practicum.model.Stats;
+import ru.practicum.model.StatsQuery;
+import ru.practicum.repository.StatsRepository;
+import ru.practicum.service.StatsDictionary;
+import ru.practicum.util.TimeBuckets;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatsIntervalCacheTest {
+    private static final int APP_ID = 1;
+    private static final int URI_A = 10;
+    private static final int URI_B = 20;
+
+    private final Map<LocalDateTime, Map<Integer, Long>> buckets = new TreeMap<>();
+    private final List<LocalDateTime> loadedFrom = new ArrayList<>();
+    private final LocalDateTime base = TimeBuckets.floor(LocalDateTime.now(), ChronoUnit.HOURS).minusHours(5);
+
+    private StatsIntervalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        StatsRepository repository = mock(StatsRepository.class);
+        doAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            LocalDateTime to = invocation.getArgument(2);
+            List<Integer> uriIds = invocation.getArgument(4);
+            StatsRepository.BucketCountConsumer consumer = invocation.getArgument(5);
+            loadedFrom.add(from);
+            buckets.forEach((bucket, hits) -> {
+                if (!bucket.isBefore(from) && bucket.isBefore(to)) {
+                    hits.forEach((uriId, count) -> {
+                        if (uriIds == null || uriIds.contains(uriId)) {
+                            consumer.accept(bucket, APP_ID, uriId, count);
+                        }
+                    });
+                }
+            });
+            return null;
+        }).when(repository).forEachBucketCount(eq(ChronoUnit.HOURS), any(), any(), anyBoolean(), any(), any());
+        StatsDictionary dictionary = mock(StatsDictionary.class);
+        when(dictionary.names(any(DictionaryTable.class), anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(1);
+            return ids.stream().distinct().collect(Collectors.toMap(Function.identity(), id -> "/" + id));
+        });
+        cache = new StatsIntervalCache(repository, dictionary, new SimpleMeterRegistry(), ChronoUnit.HOURS, 1000);
+
+        for (int hour = 0; hour < 3; hour++) {
+            buckets.put(base.plusHours(hour), new TreeMap<>(Map.of(URI_A, 1L, URI_B, 2L)));
+        }
+    }
+
+    @Test
+    void servesClosedBucketsFromCache() {
+        assertThat(hits(null)).containsEntry("/" + URI_A, 3L).containsEntry("/" + URI_B, 6L);
+        loadedFrom.clear();
+
+        assertThat(hits(null)).containsEntry("/" + URI_A, 3L).containsEntry("/" + URI_B, 6L);
+        assertThat(loadedFrom).isEmpty();
+    }
+
+    @Test
+    void lateHitReloadsOnlyItsBucket() {
+        hits(null);
+        loadedFrom.clear();
+
+        buckets.get(base.plusHours(1)).merge(URI_A, 5L, Long::sum);
+        cache.invalidate(List.of(hit(URI_A, base.plusHours(1).plusMinutes(10))));
+
+        assertThat(hits(null)).containsEntry("/" + URI_A, 8L);
+        assertThat(loadedFrom).containsExactly(base.plusHours(1));
+    }
+
+    @Test
+    void lateHitKeepsEntriesFilteredByOtherUris() {
+        hits(List.of(URI_B));
+        hits(null);
+        loadedFrom.clear();
+
+        cache.invalidate(List.of(hit(URI_A, base.plusMinutes(30))));
+
+        hits(List.of(URI_B));
+        assertThat(loadedFrom).isEmpty();
+        hits(null);
+        assertThat(loadedFrom).containsExactly(base);
+    }
+
+    @Test
+    void hitInOpenBucketKeepsCache() {
+        hits(null);
+        loadedFrom.clear();
+
+        cache.invalidate(List.of(hit(URI_A, LocalDateTime.now())));
+
+        hits(null);
+        assertThat(loadedFrom).isEmpty();
+    }
+
+    @Test
+    void clearDropsAllBuckets() {
+        hits(null);
+        loadedFrom.clear();
+
+        cache.clear();
+
+        hits(null);
+        assertThat(loadedFrom).containsExactly(base);
+    }
+
+    private Map<String, Long> hits(List<Integer> uriIds) {
+        StatsQuery query = StatsQuery.builder()
+                .start(base)
+                .end(base.plusHours(3))
+                .endExclusive(true)
+                .uriIds(uriIds)
+                .build();
+        return cache.findStats(query).orElseThrow().stream()
+                .collect(Collectors.toMap(ViewStatsDto::getUri, ViewStatsDto::getHits));
+    }
+
+    private Stats hit(int uriId, LocalDateTime timestamp) {
+        return Stats.builder().appId(APP_ID).uriId(uriId).ipId(1).timestamp(timestamp).build();
+    }
+}
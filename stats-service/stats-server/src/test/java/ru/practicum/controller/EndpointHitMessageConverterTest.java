@@ -0,0 +1,69 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import ru.practicum.EndpointHitCodec;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.ViewStatsDto;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointHitMessageConverterTest {
+    private static final MediaType HIT = MediaType.parseMediaType(EndpointHitCodec.MEDIA_TYPE);
+    private static final Type HIT_LIST = new ParameterizedTypeReference<List<EndpointHitDto>>() {
+    }.getType();
+
+    private final EndpointHitMessageConverter converter = new EndpointHitMessageConverter();
+
+    @Test
+    void writesHitListThatReadsBack() throws IOException {
+        List<EndpointHitDto> hits = List.of(hit("/events/1", "hit-1"), hit("/events/2", null));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(hits, HIT_LIST, HIT, output);
+
+        assertThat(output.getHeaders().getContentType()).isEqualTo(HIT);
+        Object read = converter.read(HIT_LIST, null, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertThat(read).isEqualTo(hits);
+    }
+
+    @Test
+    void writesSingleHit() throws IOException {
+        EndpointHitDto hit = hit("/events/1", null);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(hit, EndpointHitDto.class, HIT, output);
+
+        Object read = converter.read(EndpointHitDto.class, null, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertThat(read).isEqualTo(hit);
+    }
+
+    @Test
+    void writesOnlyHitTypes() {
+        Type viewStatsList = new ParameterizedTypeReference<List<ViewStatsDto>>() {
+        }.getType();
+
+        assertThat(converter.canWrite(HIT_LIST, List.class, HIT)).isTrue();
+        assertThat(converter.canWrite(EndpointHitDto.class, EndpointHitDto.class, HIT)).isTrue();
+        assertThat(converter.canWrite(viewStatsList, List.class, HIT)).isFalse();
+        assertThat(converter.canWrite(HIT_LIST, List.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private EndpointHitDto hit(String uri, String hitId) {
+        return EndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip("192.168.0.1")
+                .timestamp(LocalDateTime.of(2024, 1, 1, 10, 0, 0))
+                .hitId(hitId)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.exception.DatabaseException;
+import ru.practicum.exception.ErrorHandler;
+import ru.practicum.service.StatsService;
+import ru.practicum.service.StatsStream;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StatsControllerStreamTest {
+    private final StatsService statsService = mock(StatsService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new StatsController(statsService, objectMapper))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void streamsCompleteArray() throws Exception {
+        stats(consumer -> {
+            consumer.accept(new ViewStatsDto("ewm", "/events/1", 2L));
+            consumer.accept(new ViewStatsDto("ewm", "/events/2", 1L));
+        });
+
+        String body = fetch();
+
+        assertThat(objectMapper.readTree(body)).hasSize(2);
+    }
+
+    @Test
+    void answersErrorStatusWhenQueryFailsBeforeResponseIsCommitted() throws Exception {
+        stats(consumer -> {
+            consumer.accept(new ViewStatsDto("ewm", "/events/1", 2L));
+            throw new DatabaseException("Ошибка при получении статистики: соединение закрыто");
+        });
+
+        MvcResult result = mvc.perform(asyncDispatch(start()))
+                .andExpect(status().isInternalServerError())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .isEqualTo("Ошибка при получении статистики: соединение закрыто");
+    }
+
+    @Test
+    void leavesArrayUnclosedWithStatusOkWhenQueryFailsAfterResponseIsCommitted() throws Exception {
+        stats(consumer -> {
+            for (int i = 0; i < 10_000; i++) {
+                consumer.accept(new ViewStatsDto("ewm", "/events/" + i, 2L));
+            }
+            throw new DatabaseException("Ошибка при получении статистики: соединение закрыто");
+        });
+
+        String body = fetch();
+
+        assertThat(body).startsWith("[{\"app\":\"ewm\"").doesNotEndWith("]");
+        assertThatThrownBy(() -> objectMapper.readTree(body)).isInstanceOf(JsonProcessingException.class);
+    }
+
+    private void stats(StatsStream stream) {
+        when(statsService.getStats(any(), any(), isNull(), anyBoolean(), anyBoolean())).thenReturn(stream);
+    }
+
+    private String fetch() throws Exception {
+        MvcResult result = mvc.perform(asyncDispatch(start()))
+                .andExpect(status().isOk())
+                .andReturn();
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private MvcResult start() throws Exception {
+        return mvc.perform(get("/stats")
+                        .param("start", "2024-01-01 00:00:00")
+                        .param("end", "2024-01-02 00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.exception.OverloadException;
+import ru.practicum.metrics.StatsMetrics;
+import ru.practicum.repository.StatsHitIdRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HitDeduplicatorTest {
+    private final StatsHitIdRepository repository = mock(StatsHitIdRepository.class);
+    private final Set<String> stored = new HashSet<>();
+
+    private HitDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findExisting(anyCollection())).thenAnswer(invocation -> {
+            Set<String> existing = new HashSet<>(invocation.<Collection<String>>getArgument(0));
+            existing.retainAll(stored);
+            return existing;
+        });
+        when(repository.insertAll(anyList(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            List<String> hitIds = invocation.getArgument(0);
+            Set<String> inserted = new HashSet<>();
+            for (String hitId : hitIds) {
+                if (stored.add(hitId)) {
+                    inserted.add(hitId);
+                }
+            }
+            return inserted;
+        });
+        deduplicator = new HitDeduplicator(repository, new StatsMetrics(new SimpleMeterRegistry()), 0, 2, 1_000, 0.01,
+                300, 1);
+        deduplicator.warmUp();
+    }
+
+    @Test
+    void dropsRepeatedIdFoundByFilter() {
+        store(hit("a"));
+
+        assertThat(deduplicator.claim(List.of(hit("a")))).isEmpty();
+    }
+
+    @Test
+    void dropsReplayedIdAfterFilterRotation() {
+        store(hit("a"));
+        deduplicator.claim(List.of());
+        deduplicator.claim(List.of());
+
+        List<EndpointHitDto> replay = List.of(hit("a"), hit("b"), hit(null));
+        List<EndpointHitDto> accepted = deduplicator.claim(replay);
+
+        assertThat(accepted).hasSize(3);
+        verify(repository, never()).findExisting(anyCollection());
+        assertThat(deduplicator.record(accepted)).containsExactly("a");
+    }
+
+    @Test
+    void dropsSecondCopyInsideOneBatch() {
+        assertThat(deduplicator.claim(List.of(hit("a"), hit("a")))).hasSize(1);
+    }
+
+    @Test
+    void pendingDuplicateIsDroppedOnceFirstCopyIsStored() throws Exception {
+        List<EndpointHitDto> first = deduplicator.claim(List.of(hit("a")));
+        CompletableFuture<List<EndpointHitDto>> second =
+                CompletableFuture.supplyAsync(() -> deduplicator.claim(List.of(hit("a"), hit("b"))));
+
+        Thread.sleep(50);
+        assertThat(second).isNotDone();
+        deduplicator.record(first);
+        deduplicator.release(first, true);
+
+        assertThat(second.get(1, TimeUnit.SECONDS)).extracting(EndpointHitDto::getHitId).containsExactly("b");
+    }
+
+    @Test
+    void pendingDuplicateIsAcceptedWhenFirstCopyFails() throws Exception {
+        List<EndpointHitDto> first = deduplicator.claim(List.of(hit("a")));
+        CompletableFuture<List<EndpointHitDto>> second =
+                CompletableFuture.supplyAsync(() -> deduplicator.claim(List.of(hit("a"))));
+
+        Thread.sleep(50);
+        deduplicator.release(first, false);
+
+        assertThat(second.get(1, TimeUnit.SECONDS)).extracting(EndpointHitDto::getHitId).containsExactly("a");
+    }
+
+    @Test
+    void rejectsDuplicateWhileFirstCopyStaysPending() {
+        deduplicator.claim(List.of(hit("a")));
+
+        assertThatThrownBy(() -> deduplicator.claim(List.of(hit("b"), hit("a"))))
+                .isInstanceOf(OverloadException.class);
+        assertThat(deduplicator.claim(List.of(hit("b")))).hasSize(1);
+    }
+
+    private void store(EndpointHitDto hit) {
+        List<EndpointHitDto> accepted = deduplicator.claim(List.of(hit));
+        assertThat(deduplicator.record(accepted)).isEmpty();
+        deduplicator.release(accepted, true);
+    }
+
+    private EndpointHitDto hit(String hitId) {
+        return EndpointHitDto.builder().hitId(hitId).build();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitIdFilterTest {
+
+    @Test
+    void containsEveryAddedId() {
+        HitIdFilter filter = new HitIdFilter(4, 10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("hit-" + i));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("hit-" + i));
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearConfigured() {
+        HitIdFilter filter = new HitIdFilter(1, 10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("hit-" + i));
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i)).count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void keepsIdsUntilTheirGenerationIsReused() {
+        HitIdFilter filter = new HitIdFilter(4, 1_000, 0.01);
+        filter.add("hit");
+
+        for (int i = 0; i < 3; i++) {
+            filter.rotate();
+            assertThat(filter.mightContain("hit")).isTrue();
+        }
+        filter.rotate();
+
+        assertThat(filter.mightContain("hit")).isFalse();
+    }
+}
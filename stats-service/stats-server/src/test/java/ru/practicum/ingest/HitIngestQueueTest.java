@@ -0,0 +1,65 @@
+package ru.practicum.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.EndpointHitDto;
+import ru.practicum.service.HitWriter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class HitIngestQueueTest {
+    private final HitWriter hitWriter = mock(HitWriter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong written = new AtomicLong();
+
+    @Test
+    void writesSynchronouslyAfterStop() {
+        countWrites();
+        HitIngestQueue queue = queue();
+        queue.start();
+        queue.stop();
+
+        queue.offer(List.of(hit(), hit()));
+
+        assertThat(written.get()).isEqualTo(2);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void flushesQueuedHitsOnStop() {
+        countWrites();
+        HitIngestQueue queue = queue();
+        queue.start();
+
+        for (int i = 0; i < 1_000; i++) {
+            queue.offer(List.of(hit()));
+        }
+        queue.stop();
+
+        assertThat(written.get()).isEqualTo(1_000);
+        assertThat(queue.size()).isZero();
+        assertThat(meterRegistry.counter("stats.ingest.dropped").count()).isZero();
+    }
+
+    private void countWrites() {
+        doAnswer(invocation -> {
+            written.addAndGet(invocation.<List<EndpointHitDto>>getArgument(0).size());
+            return null;
+        }).when(hitWriter).write(anyList());
+    }
+
+    private HitIngestQueue queue() {
+        return new HitIngestQueue(hitWriter, meterRegistry, 100_000, 100, 5, 0, 1, 1, 10_000);
+    }
+
+    private static EndpointHitDto hit() {
+        return new EndpointHitDto("ewm-main-service", "/events/1", "10.0.0.1", LocalDateTime.now(), null);
+    }
+}
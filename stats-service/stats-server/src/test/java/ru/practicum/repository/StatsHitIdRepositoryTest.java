@@ -0,0 +1,74 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsHitIdRepositoryTest {
+    private static final LocalDateTime RECEIVED = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private EmbeddedDatabase database;
+    private StatsHitIdRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("stats-schema.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        repository = new StatsHitIdRepository(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                new DatabaseDialect(jdbcTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void returnsOnlyNewIdsOfBatch() {
+        assertThat(repository.insertAll(List.of("a", "b"), RECEIVED)).containsExactlyInAnyOrder("a", "b");
+
+        assertThat(repository.insertAll(List.of("b", "c", "a", "d"), RECEIVED)).containsExactlyInAnyOrder("c", "d");
+        assertThat(repository.findExisting(List.of("a", "b", "c", "d", "e")))
+                .containsExactlyInAnyOrder("a", "b", "c", "d");
+    }
+
+    @Test
+    void insertsRepeatedIdOfBatchOnce() {
+        assertThat(repository.insertAll(List.of("a", "a", "b"), RECEIVED)).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void insertsLargeBatch() {
+        List<String> hitIds = new ArrayList<>(IntStream.range(0, 5_000).mapToObj(i -> "hit-" + i).toList());
+        repository.insertAll(hitIds.subList(0, 100), RECEIVED);
+
+        assertThat(repository.insertAll(hitIds, RECEIVED)).hasSize(4_900).doesNotContain("hit-0", "hit-99");
+    }
+
+    @Test
+    void purgesOldIds() {
+        repository.insertAll(List.of("old"), RECEIVED.minusDays(2));
+        repository.insertAll(List.of("new"), RECEIVED);
+
+        assertThat(repository.deleteBefore(RECEIVED.minusDays(1))).isEqualTo(1);
+        List<String> left = new ArrayList<>();
+        repository.forEachSince(RECEIVED.minusDays(3), left::add);
+        assertThat(left).containsExactly("new");
+    }
+}
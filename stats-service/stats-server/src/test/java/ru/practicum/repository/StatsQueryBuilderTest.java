@@ -0,0 +1,104 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.model.StatsQuery;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsQueryBuilderTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+
+    @Test
+    void splitsRangeIntoRawMinuteAndHourParts() {
+        StatsQueryBuilder builder = new StatsQueryBuilder(query(time(10, 0, 30), time(12, 30, 15)), true, false);
+        String sql = builder.build();
+
+        assertThat(sql)
+                .contains("FROM stats WHERE timestamp >= :from0 AND timestamp < :to0")
+                .contains("FROM stats_minute WHERE bucket >= :from1 AND bucket < :to1")
+                .contains("FROM stats_hour WHERE bucket >= :from2 AND bucket < :to2")
+                .contains("FROM stats_minute WHERE bucket >= :from3 AND bucket < :to3")
+                .contains("FROM stats WHERE timestamp >= :from4 AND timestamp <= :to4");
+        assertThat(ranges(builder)).containsExactly(
+                List.of(time(10, 0, 30), time(10, 1, 0)),
+                List.of(time(10, 1, 0), time(11, 0, 0)),
+                List.of(time(11, 0, 0), time(12, 0, 0)),
+                List.of(time(12, 0, 0), time(12, 30, 0)),
+                List.of(time(12, 30, 0), time(12, 30, 15)));
+    }
+
+    @Test
+    void usesOnlyMinuteRollupInsideOneHour() {
+        StatsQueryBuilder builder = new StatsQueryBuilder(query(time(10, 5, 30), time(10, 20, 0)), true, false);
+        String sql = builder.build();
+
+        assertThat(sql).contains("stats_minute").doesNotContain("stats_hour");
+        assertThat(ranges(builder)).containsExactly(
+                List.of(time(10, 5, 30), time(10, 6, 0)),
+                List.of(time(10, 6, 0), time(10, 20, 0)),
+                List.of(time(10, 20, 0), time(10, 20, 0)));
+    }
+
+    @Test
+    void readsRawHitsInsideOneMinute() {
+        StatsQueryBuilder builder = new StatsQueryBuilder(query(time(10, 5, 10), time(10, 5, 50)), true, false);
+        String sql = builder.build();
+
+        assertThat(sql).doesNotContain("stats_minute", "stats_hour", "UNION ALL")
+                .contains("timestamp >= :from0 AND timestamp <= :to0");
+        assertThat(ranges(builder)).containsExactly(List.of(time(10, 5, 10), time(10, 5, 50)));
+    }
+
+    @Test
+    void keepsEndExclusiveOnLastRawPart() {
+        StatsQuery query = query(time(10, 0, 30), time(12, 30, 15)).toBuilder().endExclusive(true).build();
+
+        assertThat(new StatsQueryBuilder(query, true, false).build())
+                .contains("timestamp >= :from4 AND timestamp < :to4");
+    }
+
+    @Test
+    void readsRawHitsForUniqueQueries() {
+        StatsQuery query = query(time(10, 0, 30), time(12, 30, 15)).toBuilder().unique(true).build();
+        String sql = new StatsQueryBuilder(query, true, false).build();
+
+        assertThat(sql).contains("COUNT(DISTINCT ip_id)").doesNotContain("stats_minute", "stats_hour");
+    }
+
+    @Test
+    void readsRawHitsWhenRollupsDisabled() {
+        String sql = new StatsQueryBuilder(query(time(10, 0, 30), time(12, 30, 15)), false, false).build();
+
+        assertThat(sql).doesNotContain("stats_minute", "stats_hour", "UNION ALL");
+    }
+
+    @Test
+    void filtersEveryPartByUri() {
+        StatsQuery query = query(time(10, 0, 30), time(12, 30, 15)).toBuilder().uriIds(List.of(1, 2)).build();
+        String sql = new StatsQueryBuilder(query, true, false).build();
+
+        assertThat(sql.split("uri_id = ANY\\(:uriIds\\)", -1)).hasSize(6);
+    }
+
+    private StatsQuery query(LocalDateTime start, LocalDateTime end) {
+        return StatsQuery.builder().start(start).end(end).build();
+    }
+
+    private LocalDateTime time(int hour, int minute, int second) {
+        return DAY.withHour(hour).withMinute(minute).withSecond(second);
+    }
+
+    private List<List<LocalDateTime>> ranges(StatsQueryBuilder builder) {
+        List<List<LocalDateTime>> ranges = new ArrayList<>();
+        for (int i = 0; builder.getParams().hasValue("from" + i); i++) {
+            ranges.add(List.of(((Timestamp) builder.getParams().getValue("from" + i)).toLocalDateTime(),
+                    ((Timestamp) builder.getParams().getValue("to" + i)).toLocalDateTime()));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.practicum.sketch.HyperLogLog;
+import ru.practicum.sketch.SketchKey;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsSketchRepositoryTest {
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    private EmbeddedDatabase database;
+    private StatsSketchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("stats-schema.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        repository = new StatsSketchRepository(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                new DatabaseDialect(jdbcTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void insertsOnlyMissingSketches() {
+        SketchKey first = new SketchKey(1, 10, BUCKET);
+        SketchKey second = new SketchKey(1, 20, BUCKET);
+        SketchKey third = new SketchKey(2, 10, BUCKET.plusHours(1));
+        Map<SketchKey, HyperLogLog> sketches = new HashMap<>();
+        sketches.put(first, sketch(1));
+        sketches.put(second, sketch(2));
+        sketches.put(third, sketch(3));
+
+        assertThat(repository.insertMissing(List.of(first, second), sketches)).containsExactlyInAnyOrder(first, second);
+        assertThat(repository.insertMissing(List.of(first, second, third), sketches)).containsExactly(third);
+    }
+
+    @Test
+    void mergesLockedSketches() {
+        SketchKey key = new SketchKey(1, 10, BUCKET);
+        repository.insertMissing(List.of(key), Map.of(key, sketch(1)));
+
+        HyperLogLog locked = repository.lockAll(List.of(key)).get(key);
+        locked.merge(sketch(2));
+        repository.updateAll(Map.of(key, locked));
+
+        Map<SketchKey, HyperLogLog> stored = new HashMap<>();
+        repository.forEachSketch(BUCKET, BUCKET.plusHours(1), null, stored::put);
+        assertThat(stored.get(key).estimate()).isEqualTo(2);
+    }
+
+    private HyperLogLog sketch(long value) {
+        HyperLogLog sketch = new HyperLogLog(12);
+        sketch.add(HyperLogLog.hash(value));
+        return sketch;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.segment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.model.Stats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentLogTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private SegmentLog log;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Test
+    void recoversActiveSegmentAfterRestart() throws IOException {
+        log = open();
+        log.append(hits(0, 3));
+        log.close();
+
+        log = open();
+
+        assertThat(ipIds()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void truncatesTornRecordAndEverythingAfterIt() throws IOException {
+        log = open();
+        log.append(hits(0, 4));
+        log.close();
+        corrupt(firstSegment(), 2);
+
+        log = open();
+        assertThat(ipIds()).containsExactly(0, 1);
+
+        log.append(hits(10, 1));
+        log.close();
+        log = open();
+
+        assertThat(ipIds()).containsExactly(0, 1, 10);
+    }
+
+    @Test
+    void deletesActiveSegmentWithTornHeader() throws IOException {
+        Files.write(Segment.fileName(directory, 1), new byte[Segment.HEADER_SIZE - 1]);
+
+        log = open();
+        log.append(hits(0, 1));
+
+        log.close();
+        log = open();
+
+        assertThat(ipIds()).containsExactly(0);
+    }
+
+    @Test
+    void failsOnDamagedSealedSegment() throws IOException {
+        Files.write(Segment.fileName(directory, 1), new byte[Segment.HEADER_SIZE - 1]);
+        Files.write(Segment.fileName(directory, 2), new byte[Segment.HEADER_SIZE - 1]);
+
+        SegmentLog damaged = new SegmentLog(directory.toString(), 1, 16, false);
+
+        assertThatThrownBy(damaged::open).isInstanceOf(IllegalStateException.class);
+        damaged.close();
+    }
+
+    private SegmentLog open() throws IOException {
+        SegmentLog segmentLog = new SegmentLog(directory.toString(), 1, 16, false);
+        segmentLog.open();
+        return segmentLog;
+    }
+
+    private List<Integer> ipIds() {
+        List<Integer> ipIds = new ArrayList<>();
+        log.scan(Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, appId, uriId, ipId) -> ipIds.add(ipId));
+        return ipIds;
+    }
+
+    private List<Stats> hits(int firstIpId, int count) {
+        return IntStream.range(firstIpId, firstIpId + count)
+                .mapToObj(ipId -> Stats.builder()
+                        .appId(1)
+                        .uriId(2)
+                        .ipId(ipId)
+                        .timestamp(START.plusSeconds(ipId))
+                        .build())
+                .toList();
+    }
+
+    private Path firstSegment() {
+        return Segment.fileName(directory, 1);
+    }
+
+    private void corrupt(Path segment, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}),
+                    Segment.HEADER_SIZE + (long) position * Segment.RECORD_SIZE + 10);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+    private static final int PRECISION = 12;
+
+    @Test
+    void estimatesSmallCardinalityAlmostExactly() {
+        assertThat(sketch(0, 100).estimate()).isCloseTo(100L, within(3L));
+    }
+
+    @Test
+    void estimatesLargeCardinalityWithinErrorBound() {
+        long estimate = sketch(0, 200_000).estimate();
+
+        assertThat((double) estimate).isCloseTo(200_000, within(200_000 * 3 * HyperLogLog.relativeError(PRECISION)));
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        HyperLogLog left = sketch(0, 60_000);
+        HyperLogLog right = sketch(40_000, 100_000);
+
+        left.merge(right);
+
+        assertThat(left.toBytes()).isEqualTo(sketch(0, 100_000).toBytes());
+    }
+
+    @Test
+    void mergeIgnoresRepeatedValues() {
+        HyperLogLog merged = sketch(0, 10_000);
+
+        merged.merge(sketch(0, 10_000));
+        merged.merge(sketch(0, 5_000));
+
+        assertThat(merged.toBytes()).isEqualTo(sketch(0, 10_000).toBytes());
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(PRECISION).merge(new HyperLogLog(PRECISION - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void restoresFromBytes() {
+        HyperLogLog sketch = sketch(0, 5_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.getPrecision()).isEqualTo(PRECISION);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    private HyperLogLog sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = from; i < to; i++) {
+            sketch.add(HyperLogLog.hash(i));
+        }
+        return sketch;
+    }
+}
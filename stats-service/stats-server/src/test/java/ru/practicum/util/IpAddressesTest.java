@@ -0,0 +1,29 @@
+package ru.practicum.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.exception.ValidationException;
+
+import java.net.InetAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IpAddressesTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0.0.0.0", "192.168.1.20", "255.255.255.255", "::", "::1", "1::", "2001:db8::8a2e:370:7334",
+            "2001:0db8:0000:0000:0000:ff00:0042:8329", "fe80::1:2", "::ffff:10.0.0.1", "64:ff9b::192.0.2.33",
+            "1:2:3:4:5:6:7::", "::2:3:4:5:6:7:8", "1:2:3:4:5:6:1.2.3.4", "ABCD:ef01::"})
+    void parsesLiteralsLikeInetAddress(String ip) throws Exception {
+        assertThat(IpAddresses.toBytes(ip)).isEqualTo(InetAddress.getByName(ip).getAddress());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1.2.3.-4", "a.b.c.d", ":", ":::", "1:::2",
+            "1::2::3", ":1:2:3:4:5:6:7", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7::8", "12345::",
+            "g::1", "fe80::1%eth0", "[::1]", "::1.2.3", "1.2.3.4::", "localhost:8080", "example.com:1"})
+    void rejectsEverythingElse(String ip) {
+        assertThatThrownBy(() -> IpAddresses.toBytes(ip)).isInstanceOf(ValidationException.class);
+    }
+}